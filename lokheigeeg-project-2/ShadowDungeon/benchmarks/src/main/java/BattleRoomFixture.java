@@ -0,0 +1,158 @@
+import bagel.util.Point;
+
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Synthetic battle room for the benchmarks, scaled up from the layout of Battle Room A in app.properties.
+ * It lives in the default package next to the game classes; the JMH benchmarks (which must be in a named package)
+ * only see it through the {@link Runnable}s it hands out.
+ */
+public class BattleRoomFixture {
+    private static final String ROOM_NAME = "bench";
+    private static final String TEMPLATE_ROOM = ShadowDungeon.BATTLE_ROOM_A_NAME;
+    private static final String[] LAYOUT_TYPES = {"primarydoor", "secondarydoor", "keyBulletKin", "table", "basket",
+            "treasurebox", "river"};
+    private static final double JITTER = 64;
+    private static final String UNKILLABLE = "1e18";
+    private static final long SEED = 42;
+
+    private final Random random = new Random(SEED);
+    private final SimulatedInput input = new SimulatedInput();
+    private final BattleRoom room;
+    private final Player player;
+    private final FireballStore fireballs;
+    private final BulletPattern pattern;
+    private final int bulletCount;
+    private final int fireballCount;
+
+    /**
+     * Builds a battle room with the given number of entities, all enemies activated.
+     * @param enemies The number of BulletKins and AshenBulletKins.
+     * @param projectiles The number of live projectiles, half player bullets and half fireballs.
+     * @param walls The number of wall tiles.
+     */
+    public BattleRoomFixture(int enemies, int projectiles, int walls) {
+        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
+
+        // nothing may die, so that every measured frame does the same amount of work
+        gameProps.setProperty("initialHealth", UNKILLABLE);
+        gameProps.setProperty("bulletKinHealth", UNKILLABLE);
+        gameProps.setProperty("ashenBulletKinHealth", UNKILLABLE);
+        gameProps.setProperty("keyBulletKinHealth", UNKILLABLE);
+        gameProps.setProperty("bulletPoolSize", String.valueOf(Math.max(1, projectiles / 2)));
+        gameProps.setProperty("fireballPoolSize", String.valueOf(Math.max(1, projectiles - projectiles / 2)));
+
+        for (String type : LAYOUT_TYPES) {
+            gameProps.setProperty(type + "." + ROOM_NAME, gameProps.getProperty(type + "." + TEMPLATE_ROOM));
+        }
+        int bulletKins = enemies * 3 / 5;
+        gameProps.setProperty("bulletKin." + ROOM_NAME, scaleLayout(gameProps, "bulletKin", bulletKins));
+        gameProps.setProperty("ashenBulletKin." + ROOM_NAME, scaleLayout(gameProps, "ashenBulletKin",
+                enemies - bulletKins));
+        gameProps.setProperty("wall." + ROOM_NAME, scaleLayout(gameProps, "wall", walls));
+
+        ShadowDungeon.init(gameProps, messageProps);
+        player = ShadowDungeon.getPlayer();
+        // give the player a previous position, as walls push it back there when it starts inside one
+        player.teleport(player.getPosition().x, player.getPosition().y);
+        room = new BattleRoom(ROOM_NAME);
+        room.initEntities(ShadowDungeon.getConfig());
+        room.setPlayer(player);
+        room.activateEnemies();
+        fireballs = room.getFireballs();
+        pattern = ShadowDungeon.getConfig().getPattern(ShadowDungeon.getConfig().bulletKinPattern);
+
+        bulletCount = projectiles / 2;
+        fireballCount = projectiles - bulletCount;
+        topUpProjectiles();
+        room.update(input);
+    }
+
+    /**
+     * Returns a task running one full frame of the room.
+     * @return The frame task.
+     */
+    public Runnable frame() {
+        return () -> {
+            room.update(input);
+            topUpProjectiles();
+        };
+    }
+
+    /**
+     * Returns a task running only the fireball loop of a frame.
+     * @return The fireball loop task.
+     */
+    public Runnable fireballLoop() {
+        return () -> {
+            room.updateFireballs();
+            topUpProjectiles();
+        };
+    }
+
+    /**
+     * Returns a task running only the player bullet loop of a frame, including hits on enemies.
+     * @return The player bullet loop task.
+     */
+    public Runnable bulletLoop() {
+        return () -> {
+            room.updatePlayerBullets();
+            topUpProjectiles();
+        };
+    }
+
+    /**
+     * Returns a task running only the player's collisions with walls and rivers.
+     * @return The obstacle loop task.
+     */
+    public Runnable obstacleLoop() {
+        return room::updateTerrain;
+    }
+
+    // respawns projectiles that died, like enemies and the player firing continuously
+    private void topUpProjectiles() {
+        BulletStore bullets = player.getBullets();
+        while (bullets.size() < bulletCount) {
+            double angle = random.nextDouble() * 2 * Math.PI;
+            bullets.fire(randomX(), randomY(), Math.cos(angle), Math.sin(angle));
+        }
+        // through the pattern the BulletKins shoot, as the game does
+        while (fireballs.size() < fireballCount) {
+            pattern.emit(fireballs, randomX(), randomY(), player.getX(), player.getY(), 0);
+        }
+    }
+
+    // repeats the template room's layout of an entity type, each copy spread further around the original positions
+    private String scaleLayout(Properties gameProps, String type, int count) {
+        if (count == 0) {
+            return "0";
+        }
+        double width = Double.parseDouble(gameProps.getProperty("window.width"));
+        double height = Double.parseDouble(gameProps.getProperty("window.height"));
+        String[] template = gameProps.getProperty(type + "." + TEMPLATE_ROOM).split(";");
+
+        StringBuilder layout = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            Point base = IOUtils.parseCoords(template[i % template.length]);
+            double spread = JITTER * (i / template.length);
+            double x = clamp(base.x + (random.nextDouble() * 2 - 1) * spread, width);
+            double y = clamp(base.y + (random.nextDouble() * 2 - 1) * spread, height);
+            layout.append(x).append(',').append(y).append(';');
+        }
+        return layout.toString();
+    }
+
+    private double randomX() {
+        return random.nextDouble() * ShadowDungeon.screenWidth;
+    }
+
+    private double randomY() {
+        return random.nextDouble() * ShadowDungeon.screenHeight;
+    }
+
+    private static double clamp(double value, double max) {
+        return Math.max(0, Math.min(max, value));
+    }
+}
@@ -0,0 +1,97 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of one battle room frame, and of its projectile and obstacle loops on their own.
+ * One benchmark operation is one frame, so the reported time is ns/frame and the GC profiler's
+ * gc.alloc.rate.norm is bytes allocated per frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleRoomBenchmark {
+    /**
+     * Room size as enemies/projectiles/walls; "shipped" is Battle Room A as configured in app.properties, and
+     * "100k-projectiles" is the shipped room with 100k live projectiles.
+     */
+    @Param({"shipped", "1k", "10k", "100k-projectiles"})
+    public String scale;
+
+    private Runnable frame;
+    private Runnable fireballLoop;
+    private Runnable bulletLoop;
+    private Runnable obstacleLoop;
+
+    /**
+     * Builds a fresh room for each trial.
+     * @throws ReflectiveOperationException If the fixture cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        int[] size = sizeOf(scale);
+        // the game classes are in the default package, so the fixture is only reachable reflectively
+        Class<?> fixtureClass = Class.forName("BattleRoomFixture");
+        Object fixture = fixtureClass.getConstructor(int.class, int.class, int.class)
+                .newInstance(size[0], size[1], size[2]);
+        frame = (Runnable) fixtureClass.getMethod("frame").invoke(fixture);
+        fireballLoop = (Runnable) fixtureClass.getMethod("fireballLoop").invoke(fixture);
+        bulletLoop = (Runnable) fixtureClass.getMethod("bulletLoop").invoke(fixture);
+        obstacleLoop = (Runnable) fixtureClass.getMethod("obstacleLoop").invoke(fixture);
+    }
+
+    /** A full BattleRoom.update call. */
+    @Benchmark
+    public void frame() {
+        frame.run();
+    }
+
+    /** Fireball movement, player hits and obstacle checks. */
+    @Benchmark
+    public void fireballLoop() {
+        fireballLoop.run();
+    }
+
+    /** Player bullet movement, obstacle checks and hits on enemies, the basket and the table. */
+    @Benchmark
+    public void bulletLoop() {
+        bulletLoop.run();
+    }
+
+    /** The player's collisions with walls and rivers. */
+    @Benchmark
+    public void obstacleLoop() {
+        obstacleLoop.run();
+    }
+
+    private static int[] sizeOf(String scale) {
+        switch (scale) {
+            case "shipped":
+                return new int[] {5, 20, 18};
+            case "1k":
+                return new int[] {1000, 5000, 500};
+            case "10k":
+                return new int[] {10000, 50000, 5000};
+            case "100k-projectiles":
+                return new int[] {5, 100000, 18};
+            default:
+                throw new IllegalArgumentException("Unknown room scale: " + scale);
+        }
+    }
+}
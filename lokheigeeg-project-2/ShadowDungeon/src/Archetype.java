@@ -0,0 +1,106 @@
+/**
+ * Describes a kind of enemy as data: the components and starting values an entity spawned from it gets.
+ * The game's enemies differ only by these numbers, so a new kind of enemy needs a new archetype, not a new class.
+ */
+public class Archetype {
+    /** Damage every enemy deals to the player per base tick of contact, or once if it dies on contact. */
+    public static final double CONTACT_DAMAGE = 0.2;
+
+    /** The sprite the enemy is drawn with. */
+    public final Sprite sprite;
+    /** Starting health. */
+    public final double health;
+    /** Base coins the player earns for the kill. */
+    public final double coinValue;
+    /** Whether the kill pays out coins and perk bonuses. */
+    public final boolean rewardsKill;
+    /** Ticks between shots, or 0 if the enemy never shoots. */
+    public final double shootFrequency;
+    /** The pattern of fireballs each shot fires, or null if the enemy never shoots. */
+    public final BulletPattern pattern;
+    /** Damage dealt to the player per tick of contact, or once if the enemy dies on contact. */
+    public final double contactDamage;
+    /** Whether the enemy dies the moment it touches the player. */
+    public final boolean diesOnContact;
+    /** Distance covered per tick along a patrol route or towards the player, or 0 if the enemy stands still. */
+    public final double speed;
+    /** Whether the enemy walks towards the player, following the room's flow field, rather than a route. */
+    public final boolean chases;
+    /** Whether the enemy leaves a key behind when it dies. */
+    public final boolean dropsKey;
+
+    /**
+     * Creates an archetype.
+     * @param sprite The sprite the enemy is drawn with.
+     * @param health Starting health.
+     * @param coinValue Base coins earned for the kill.
+     * @param rewardsKill Whether the kill pays out coins and perk bonuses.
+     * @param shootFrequency Ticks between shots, or 0 if it never shoots.
+     * @param pattern The pattern of fireballs each shot fires, or null if it never shoots.
+     * @param contactDamage Damage dealt per tick of contact, or once if it dies on contact.
+     * @param diesOnContact Whether it dies when touching the player.
+     * @param speed Distance covered per tick along a patrol route or towards the player, or 0.
+     * @param chases Whether it walks towards the player rather than along a route.
+     * @param dropsKey Whether it leaves a key behind when it dies.
+     */
+    public Archetype(Sprite sprite, double health, double coinValue, boolean rewardsKill, double shootFrequency,
+                     BulletPattern pattern, double contactDamage, boolean diesOnContact, double speed, boolean chases,
+                     boolean dropsKey) {
+        this.sprite = sprite;
+        this.health = health;
+        this.coinValue = coinValue;
+        this.rewardsKill = rewardsKill;
+        this.shootFrequency = shootFrequency;
+        this.pattern = pattern;
+        this.contactDamage = contactDamage;
+        this.diesOnContact = diesOnContact;
+        this.speed = speed;
+        this.chases = chases;
+        this.dropsKey = dropsKey;
+    }
+
+    /**
+     * Returns the BulletKin: stands still, shoots its pattern at intervals and hurts the player on contact.
+     * @param config The game configuration.
+     * @return The BulletKin archetype.
+     */
+    public static Archetype bulletKin(GameConfig config) {
+        return new Archetype(Assets.getSprite("res/bullet_kin.png"), config.bulletKinHealth, config.bulletKinCoin,
+                true, GameClock.ticks(config.bulletKinShootFrequency), config.getPattern(config.bulletKinPattern),
+                GameClock.perTick(CONTACT_DAMAGE), false, 0, false, false);
+    }
+
+    /**
+     * Returns the AshenBulletKin: a BulletKin with its own health, reward, rate of fire and pattern.
+     * @param config The game configuration.
+     * @return The AshenBulletKin archetype.
+     */
+    public static Archetype ashenBulletKin(GameConfig config) {
+        return new Archetype(Assets.getSprite("res/ashen_bullet_kin.png"), config.ashenBulletKinHealth,
+                config.ashenBulletKinCoin, true, GameClock.ticks(config.ashenBulletKinShootFrequency),
+                config.getPattern(config.ashenBulletKinPattern), GameClock.perTick(CONTACT_DAMAGE), false, 0, false,
+                false);
+    }
+
+    /**
+     * Returns the KeyBulletKin: patrols a route, never shoots, dies on contact and drops a key when killed. Its
+     * contact damage is dealt once, so unlike the other enemies' it does not depend on the tick rate.
+     * @param config The game configuration.
+     * @return The KeyBulletKin archetype.
+     */
+    public static Archetype keyBulletKin(GameConfig config) {
+        return new Archetype(Assets.getSprite("res/key_bullet_kin.png"), config.keyBulletKinHealth, 0, false, 0, null,
+                CONTACT_DAMAGE, true, GameClock.perTick(config.keyBulletKinSpeed), false, true);
+    }
+
+    /**
+     * Returns the ChaserKin: walks around the walls towards the player, never shoots and hurts it on contact.
+     * @param config The game configuration.
+     * @return The ChaserKin archetype.
+     */
+    public static Archetype chaserKin(GameConfig config) {
+        return new Archetype(Assets.getSprite(config.chaserKinImage), config.chaserKinHealth, config.chaserKinCoin,
+                true, 0, null, GameClock.perTick(CONTACT_DAMAGE), false, GameClock.perTick(config.chaserKinSpeed),
+                true, false);
+    }
+}
@@ -0,0 +1,144 @@
+import bagel.Font;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the images and fonts under res/, so each file is read once and every entity using it shares the same
+ * sprite, texture or font.
+ * Sprites may be registered from any thread, as rooms are built in the background; textures and fonts are only
+ * loaded on the thread running the game window. An image that cannot be read makes the registration throw an
+ * {@link UncheckedIOException} instead of exiting, so a failure on the room builder thread reaches the game thread.
+ */
+public class Assets {
+    private static final String RES_DIR = "res";
+    private static final String IMAGE_SUFFIX = ".png";
+    private static final Map<String, Sprite> SPRITES = new ConcurrentHashMap<>();
+    private static final Map<String, Map<Integer, Font>> FONTS = new HashMap<>();
+    private static volatile boolean hasWindow = false;
+
+    /**
+     * Returns the shared sprite for an image file, registering it on first use.
+     * @param file The path to the image file (e.g. "res/wall.png").
+     * @return The sprite shared by everything drawing that image.
+     * @throws UncheckedIOException If the image file cannot be read.
+     */
+    public static Sprite getSprite(String file) {
+        Sprite sprite = SPRITES.get(file);
+        if (sprite == null) {
+            sprite = SPRITES.computeIfAbsent(file, Sprite::new);
+        }
+        return sprite;
+    }
+
+    /**
+     * Returns the shared font for a font file and size, loading it on first use.
+     * Must be called once the game window exists.
+     * @param file The path to the font file (e.g. "res/wheaton.otf").
+     * @param size The font size.
+     * @return The font shared by all text drawn with that file and size.
+     */
+    public static Font getFont(String file, int size) {
+        Map<Integer, Font> sizes = FONTS.computeIfAbsent(file, key -> new HashMap<>());
+        Font font = sizes.get(size);
+        if (font == null) {
+            font = new Font(file, size);
+            sizes.put(size, font);
+        }
+        return font;
+    }
+
+    /**
+     * Returns the number of fonts loaded, counting each size separately.
+     * @return The loaded font count.
+     */
+    public static int getFontCount() {
+        int count = 0;
+        for (Map<Integer, Font> sizes : FONTS.values()) {
+            count += sizes.size();
+        }
+        return count;
+    }
+
+    /**
+     * Registers every image under res/, reading their sizes. This does not need a window.
+     */
+    public static void preload() {
+        File[] files = new File(RES_DIR).listFiles();
+        if (files == null) {
+            return;
+        }
+        try {
+            for (File file : files) {
+                if (file.getName().endsWith(IMAGE_SUFFIX)) {
+                    getSprite(RES_DIR + "/" + file.getName());
+                }
+            }
+        } catch (UncheckedIOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+    }
+
+    /**
+     * Loads the texture of every registered sprite, so none is loaded in the middle of gameplay.
+     * Must be called once the game window exists.
+     */
+    public static void loadTextures() {
+        hasWindow = true;
+        for (Sprite sprite : SPRITES.values()) {
+            sprite.loadTexture();
+        }
+    }
+
+    /**
+     * Loads the textures of the sprites registered since the last call, such as by a room built in the background,
+     * so their first draw does not load them. Does nothing without a game window.
+     * Must be called on the thread running the game window.
+     */
+    public static void warmTextures() {
+        if (hasWindow) {
+            loadTextures();
+        }
+    }
+
+    /**
+     * Returns the number of textures currently loaded.
+     * @return The loaded texture count.
+     */
+    public static int getTextureCount() {
+        int count = 0;
+        for (Sprite sprite : SPRITES.values()) {
+            if (sprite.isTextureLoaded()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns an estimate of the memory used by the loaded textures, at 4 bytes per pixel.
+     * @return The estimated texture memory in bytes.
+     */
+    public static long getTextureBytes() {
+        long bytes = 0;
+        for (Sprite sprite : SPRITES.values()) {
+            if (sprite.isTextureLoaded()) {
+                bytes += sprite.getTextureBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Describes the registered sprites, the loaded textures and the loaded fonts.
+     * @return A one-line summary of the registry.
+     */
+    public static String report() {
+        return String.format("%d sprites, %d textures loaded (%.1f MB), %d fonts", SPRITES.size(), getTextureCount(),
+                getTextureBytes() / (1024.0 * 1024.0), getFontCount());
+    }
+}
@@ -0,0 +1,67 @@
+import bagel.Input;
+import bagel.Keys;
+import bagel.MouseButtons;
+import bagel.util.Point;
+
+import java.util.EnumSet;
+
+/**
+ * Game input backed by the input of the bagel window for the current frame.
+ * Key presses are held until a simulation tick has seen them, so none are lost on frames that run no tick
+ * and none are repeated on frames that run several.
+ */
+public class BagelInput implements GameInput {
+    private static final Keys[] ALL_KEYS = Keys.values();
+    private final EnumSet<Keys> keysPressed = EnumSet.noneOf(Keys.class);
+    private Input input;
+
+    /**
+     * Sets the bagel input of the current frame.
+     * @param input The input passed to the game by bagel this frame.
+     */
+    public void setInput(Input input) {
+        this.input = input;
+        for (Keys key : ALL_KEYS) {
+            if (input.wasPressed(key)) {
+                keysPressed.add(key);
+            }
+        }
+    }
+
+    /**
+     * Clears the key presses seen by the tick that just ran.
+     */
+    public void nextTick() {
+        keysPressed.clear();
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return input.isDown(key);
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return keysPressed.contains(key);
+    }
+
+    @Override
+    public boolean isDown(MouseButtons button) {
+        return input.isDown(button);
+    }
+
+    @Override
+    public double getMouseX() {
+        return input.getMouseX();
+    }
+
+    @Override
+    public double getMouseY() {
+        return input.getMouseY();
+    }
+
+    @Override
+    public Point getMousePosition() {
+        return input.getMousePosition();
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * Renderer drawing into the game window with bagel. Needs the window to exist.
+ */
+public class BagelRenderer implements Renderer {
+    @Override
+    public void drawSprite(Sprite sprite, SpriteBatch.Layer layer, double x, double y) {
+        sprite.submit(x, y);
+    }
+
+    @Override
+    public void drawText(String fontFile, int fontSize, String text, double x, double y) {
+        Assets.getFont(fontFile, fontSize).drawString(text, x, y);
+    }
+
+    @Override
+    public double getTextWidth(String fontFile, int fontSize, String text) {
+        return Assets.getFont(fontFile, fontSize).getWidth(text);
+    }
+
+    @Override
+    public void endFrame() {
+        // bagel presents the frame itself once update returns
+    }
+}
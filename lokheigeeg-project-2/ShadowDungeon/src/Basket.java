@@ -1,13 +1,12 @@
-import bagel.Image;
 import bagel.util.Point;
-import bagel.util.Rectangle;
 
 /**
  * Represents a basket obstacle that blocks player movement and provides coins when destroyed.
  */
 public class Basket implements Obstacle{
     private Point position;
-    private Image image;
+    private Sprite image;
+    private final BoundingBox box;
     private double coins;
     private boolean isDestoryed = false;
 
@@ -17,8 +16,9 @@ public class Basket implements Obstacle{
      */
     public Basket(Point position){
         this.position = position;
-        this.image = new Image("res/basket.png");
-        this.coins = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("basketCoin"));
+        this.image = Assets.getSprite("res/basket.png");
+        this.box = new BoundingBox(image, position.x, position.y);
+        this.coins = ShadowDungeon.getConfig().basketCoin;
     }
 
     /**
@@ -31,7 +31,7 @@ public class Basket implements Obstacle{
         }
         if (hasCollidedWith(player)) {
             // set the player to its position prior to attempting to move through this wall
-            player.move(player.getPrevPosition().x, player.getPrevPosition().y);
+            player.moveBack();
         }
     }
 
@@ -39,7 +39,7 @@ public class Basket implements Obstacle{
      * Draws the basket on the screen.
      */
     public void draw() {
-        image.draw(position.x, position.y);
+        image.draw(position.x, position.y, SpriteBatch.Layer.FURNITURE);
     }
 
     /**
@@ -48,7 +48,7 @@ public class Basket implements Obstacle{
      * @return True if a collision occurs, false otherwise.
      */
     public boolean hasCollidedWith(Player player) {
-        return image.getBoundingBoxAt(position).intersects(player.getCurrImage().getBoundingBoxAt(player.getPosition()));
+        return box.intersects(player.getBoundingBox());
     }
 
 
@@ -57,8 +57,8 @@ public class Basket implements Obstacle{
      * @return The bounding box of the basket.
      */
     @Override
-    public Rectangle getBoundingBox() {
-        return image.getBoundingBoxAt(position);
+    public BoundingBox getBoundingBox() {
+        return box;
     }
 
 
@@ -1,278 +1,348 @@
-import bagel.Input;
 import bagel.util.Point;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Properties;
 
 /**
  * Room with doors that are locked until the plaer defeats all enemies
  */
-public class BattleRoom {
+public class BattleRoom implements Room {
     private Player player;
     private Door primaryDoor;
     private Door secondaryDoor;
     private Basket basket;
     private Table table;
-    private KeyBulletKin keyBulletKin;
-    private ArrayList<BulletKin> bulletKins;
-    private ArrayList<AshenBulletKin> ashenBulletKins;
-    private ArrayList<Fireball>  fireballs;
-    private ArrayList<TreasureBox> treasureBoxes;
-    private ArrayList<Key> keys;
+    private final World template = new World(); // enemies, keys and treasure boxes as the room starts
+    private final World world = new World();    // the same as they are now
+    private FireballStore fireballs;
     private ArrayList<Wall> walls;
     private ArrayList<River> rivers;
-    private List<Obstacle> obstacles;
+    private StaticGrid<Obstacle> projectileBlockers;    // what stops bullets and fireballs
+    private StaticGrid<Obstacle> solids;                // what the player cannot walk through
+    private int basketSolid;                            // the basket's and table's indexes in solids
+    private int tableSolid;
+    private StaticGrid<River> riverGrid;
+    private FlowField flowField;                        // only in rooms with enemies chasing the player
+    private Sprite chaserSprite;
+    private final ArrayList<Obstacle> nearbySolids = new ArrayList<>();
+    private final ArrayList<River> nearbyRivers = new ArrayList<>();
+    private final BoundingBox view = new BoundingBox(0, 0, 0, 0);
+    private final ArrayList<Obstacle> visibleSolids = new ArrayList<>();
+    private final ArrayList<River> visibleRivers = new ArrayList<>();
     private boolean stopCurrentUpdateCall = false; // this determines whether to prematurely stop the update execution
     private boolean isComplete = false;
-    private final String nextRoomName;
     private final String roomName;
     private int frame = 0;
-    private int lastShotFrame =-1;
-    private boolean keyDropped = false;
-    private boolean kbkEverActivated = false;
 
     /**
-     * Creates a battle room with the given name and next-room target.
+     * Creates a battle room with the given name, whose layout initEntities reads.
      * @param roomName The name of this room.
-     * @param nextRoomName The name of the room to enter via doors.
      */
-    public BattleRoom(String roomName, String nextRoomName) {
+    public BattleRoom(String roomName) {
         walls = new ArrayList<>();
         rivers = new ArrayList<>();
-        treasureBoxes = new ArrayList<>();
-        keys = new ArrayList<>();
-        bulletKins = new ArrayList<>();
-        ashenBulletKins = new ArrayList<>();
-        fireballs = new ArrayList<>();
-        obstacles = new ArrayList<>();
+        fireballs = new FireballStore(ShadowDungeon.getConfig().fireballPoolSize,
+                ShadowDungeon.getConfig().projectilePoolEviction);
         this.roomName = roomName;
-        this.nextRoomName = nextRoomName;
     }
     /**
-     * Initializes entities for this room from game properties.
-     * @param gameProperties The game configuration properties.
+     * Initializes entities for this room from the game configuration.
+     * @param config The game configuration holding the object layout of this room.
      */
-    public void initEntities(Properties gameProperties) {
-        // find the configuration of game objects for this room
-        for (Map.Entry<Object, Object> entry: gameProperties.entrySet()) {
-            String roomSuffix = String.format(".%s", roomName);
-
-            if (entry.getKey().toString().contains(roomSuffix)) {
-                String objectType = entry.getKey().toString()
-                        .substring(0, entry.getKey().toString().length() - roomSuffix.length());
-                String propertyValue = entry.getValue().toString();
-
-                // ignore if the value is 0
-                if (propertyValue.equals("0")) {
-                    continue;
-                }
-
-                String[] coordinates;
-                for (String coords: propertyValue.split(";")) {
-                    switch (objectType) {
-                        case "table":
-                            table = new Table(IOUtils.parseCoords(propertyValue));
-                            break;
-                        case "basket":
-                            basket = new Basket(IOUtils.parseCoords(propertyValue));
-                            break;
-
-                        case "ashenBulletKin":
-                            AshenBulletKin ashenBulletKin = new AshenBulletKin((IOUtils.parseCoords(coords)));
-                            ashenBulletKins.add(ashenBulletKin);
-                            break;
-                        case "bulletKin":
-                            BulletKin bulletKin = new BulletKin(IOUtils.parseCoords(coords));
-                            bulletKins.add(bulletKin);
-                            break;
-                        case "primarydoor":
-                            coordinates = propertyValue.split(",");
-                            primaryDoor = new Door(IOUtils.parseCoords(propertyValue), coordinates[2], this);
-                            break;
-                        case "secondarydoor":
-                            coordinates = propertyValue.split(",");
-                            secondaryDoor = new Door(IOUtils.parseCoords(propertyValue), coordinates[2], this);
-                            break;
-                        case "keyBulletKin":
-                            String start = propertyValue.split(";")[0];
-                            keyBulletKin = new KeyBulletKin(IOUtils.parseCoords(start),roomName);
-                            break;
-                        case "wall":
-                            Wall wall = new Wall(IOUtils.parseCoords(coords));
-                            walls.add(wall);
-                            break;
-                        case "treasurebox":
-                            TreasureBox treasureBox = new TreasureBox(IOUtils.parseCoords(coords),
-                                    Double.parseDouble(coords.split(",")[2]));
-                            treasureBoxes.add(treasureBox);
-                            break;
-                        case "river":
-                            River river = new River(IOUtils.parseCoords(coords));
-                            rivers.add(river);
-                            break;
-                        default:
-                    }
-                }
+    @Override
+    public void initEntities(GameConfig config) {
+        RoomConfig layout = config.getRoom(roomName);
+        if (layout.table != null) {
+            table = new Table(layout.table);
+        }
+        if (layout.basket != null) {
+            basket = new Basket(layout.basket);
+        }
+        Archetype bulletKin = Archetype.bulletKin(config);
+        Archetype ashenBulletKin = Archetype.ashenBulletKin(config);
+        for (Point position: layout.bulletKins) {
+            template.spawnEnemy(bulletKin, Collections.singletonList(position));
+        }
+        for (Point position: layout.ashenBulletKins) {
+            template.spawnEnemy(ashenBulletKin, Collections.singletonList(position));
+        }
+        if (layout.primaryDoor != null) {
+            primaryDoor = new Door(layout.primaryDoor.position, layout.primaryDoor.toRoomName, this);
+        }
+        if (layout.secondaryDoor != null) {
+            secondaryDoor = new Door(layout.secondaryDoor.position, layout.secondaryDoor.toRoomName, this);
+        }
+        if (!layout.keyBulletKinRoute.isEmpty()) {
+            template.spawnEnemy(Archetype.keyBulletKin(config), layout.keyBulletKinRoute);
+        }
+        if (!layout.chaserKins.isEmpty()) {
+            Archetype chaserKin = Archetype.chaserKin(config);
+            chaserSprite = chaserKin.sprite;
+            for (Point position: layout.chaserKins) {
+                template.spawnEnemy(chaserKin, Collections.singletonList(position));
             }
         }
+        for (Point position: layout.walls) {
+            walls.add(new Wall(position));
+        }
+        for (RoomConfig.TreasurePlacement treasure: layout.treasureBoxes) {
+            template.spawnTreasure(treasure.position, treasure.coinValue);
+        }
+        for (Point position: layout.rivers) {
+            rivers.add(new River(position));
+        }
+        buildStaticGrids(config.getRoomWidth(roomName), config.getRoomHeight(roomName));
+        if (chaserSprite != null) {
+            flowField = new FlowField(config.getRoomWidth(roomName), config.getRoomHeight(roomName),
+                    config.flowFieldCellSize);
+        }
+        reset();
+    }
+
+    /**
+     * Puts the room back in its state at the start of the game. Walls, rivers and the grids indexing them never
+     * change, so they are kept, and the entities are copied from the template built by initEntities.
+     */
+    @Override
+    public void reset() {
+        primaryDoor.reset();
+        secondaryDoor.reset();
+        basket.setIsDestoryed(false);
+        table.setIsDestoryed(false);
+        solids.restoreAll();
+        solidsChanged();
+        world.copyFrom(template);
+        fireballs.clear();
+        player = null;
+        stopCurrentUpdateCall = false;
+        isComplete = false;
+        frame = 0;
     }
 
     /**
-     * Updates and renders all active objects in the room for this frame.
+     * Saves a cleared room's breakables and pickups; a room left before it was cleared comes back as it started.
+     * @return The saved state, or null if the room is not complete.
+     */
+    @Override
+    public RoomState save() {
+        if (!isComplete) {
+            return null;
+        }
+        return new RoomState(basket.isDestoryed(), table.isDestoryed(), world);
+    }
+
+    /**
+     * Turns this room into the cleared room a state was saved from, with its doors open.
+     * @param state The saved state.
+     */
+    @Override
+    public void restore(RoomState state) {
+        if (state.basketDestroyed) {
+            basket.setIsDestoryed(true);
+            solids.remove(basketSolid);
+        }
+        if (state.tableDestroyed) {
+            table.setIsDestoryed(true);
+            solids.remove(tableSolid);
+        }
+        solidsChanged();
+        world.clear();
+        state.spawnPickups(world);
+        setComplete(true);
+        unlockAllDoors();
+    }
+
+    // index the geometry that never moves, once, so collision checks only look at the objects nearby
+    private void buildStaticGrids(double width, double height) {
+        projectileBlockers = new StaticGrid<>();
+        solids = new StaticGrid<>();
+        riverGrid = new StaticGrid<>();
+        for (Wall wall: walls) {
+            projectileBlockers.add(wall, wall.getBoundingBox());
+            solids.add(wall, wall.getBoundingBox());
+        }
+        projectileBlockers.add(primaryDoor, primaryDoor.getBoundingBox());
+        projectileBlockers.add(secondaryDoor, secondaryDoor.getBoundingBox());
+        basketSolid = solids.add(basket, basket.getBoundingBox());
+        tableSolid = solids.add(table, table.getBoundingBox());
+        for (River river: rivers) {
+            riverGrid.add(river, river.getBoundingBox());
+        }
+        projectileBlockers.build(width, height);
+        solids.build(width, height);
+        riverGrid.build(width, height);
+        // room for every object a query could return, so collision checks and drawing never grow these lists
+        nearbySolids.ensureCapacity(solids.size());
+        nearbyRivers.ensureCapacity(riverGrid.size());
+        visibleSolids.ensureCapacity(solids.size());
+        visibleRivers.ensureCapacity(riverGrid.size());
+    }
+
+    // chasing enemies walk around the solids, so their flow field follows the table and basket being destroyed
+    private void solidsChanged() {
+        if (flowField != null) {
+            flowField.markObstacles(solids, chaserSprite.getWidth() / 2, chaserSprite.getHeight() / 2);
+        }
+    }
+
+    /**
+     * Updates all active objects in the room for this frame.
      * @param input The current input state.
      */
-    public void update(Input input) {
+    @Override
+    public void update(GameInput input) {
         frame++;
-        // update and draw all active game objects in this room
+        // update all active game objects in this room
+        long time = FrameProfiler.start();
         primaryDoor.update(player);
-        primaryDoor.draw();
         if (stopUpdatingEarlyIfNeeded()) {
             return;
         }
 
         secondaryDoor.update(player);
-        secondaryDoor.draw();
         if (stopUpdatingEarlyIfNeeded()) {
             return;
         }
+        time = FrameProfiler.lap(FrameProfiler.Phase.DOORS, time);
+
+        updateEnemies();
+        time = FrameProfiler.lap(FrameProfiler.Phase.ENEMIES, time);
+        updateFireballs();
+        FrameProfiler.lap(FrameProfiler.Phase.FIREBALLS, time);
+        updatePlayerBullets();
+        updateTerrain();
+        time = FrameProfiler.start();
+        world.collect(input, player);
+        time = FrameProfiler.lap(FrameProfiler.Phase.TREASURE, time);
 
-        basket.update(player);
-        if(!basket.isDestoryed()){
-            basket.draw();
-        }
-
-        table.update(player);
-        if(!table.isDestoryed()){
-            table.draw();
-        }
-
-        if (keyBulletKin.isActive()) {
-            kbkEverActivated = true;
-            keyBulletKin.update(player);
-            keyBulletKin.draw();
+        if (player != null) {
+            player.update(input);
         }
+        FrameProfiler.lap(FrameProfiler.Phase.PLAYER, time);
 
-        if(!keyDropped && kbkEverActivated && !keyBulletKin.isActive()){
-            keys.add(new Key(keyBulletKin.getPosition()));
-            keyDropped = true;
+        if (noMoreEnemies() && !isComplete()) {
+            setComplete(true);
+            unlockAllDoors();
+            GameEvents.roomCleared(roomName, frame, world.pickups.size(), player.health);
         }
-        for (int i = keys.size() - 1; i >= 0; i--){
-            Key k = keys.get(i);
-            k.update(player);
-            if (!k.isActive()) keys.remove(i);
-            else k.draw();
+        if (FrameProfiler.isEnabled()) {
+            FrameProfiler.count(FrameProfiler.Count.ENEMIES, world.healths.size());
+            FrameProfiler.count(FrameProfiler.Count.FIREBALLS, fireballs.size());
+            FrameProfiler.count(FrameProfiler.Count.BULLETS, player.getBullets().size());
+            FrameProfiler.count(FrameProfiler.Count.PICKUPS, world.pickups.size());
         }
+    }
 
-
-
-        for (BulletKin bulletKin: bulletKins) {
-            if(bulletKin.isActive()) {
-                bulletKin.update(player);
-                if (bulletKin.canShoot(frame, bulletKin.getShootFrequency())){
-                    Point startPos = bulletKin.getPosition();
-                    Fireball fireball = new Fireball(startPos);
-                    fireballs.add(fireball);
-                }
-                bulletKin.draw();
-            }
+    /**
+     * Moves the enemies, applies their contact damage and spawns the fireballs they fire this frame.
+     */
+    void updateEnemies() {
+        world.patrol();
+        if (flowField != null) {
+            world.chase(flowField, player);
         }
-        for (AshenBulletKin ashenBulletKin: ashenBulletKins) {
-            if(ashenBulletKin.isActive()) {
-                ashenBulletKin.update(player);
-                if (ashenBulletKin.canShoot(frame, ashenBulletKin.getShootFrequency())){
-                    Point startPos = ashenBulletKin.getPosition();
-                    Fireball fireball = new Fireball(startPos);
-                    fireballs.add(fireball);
-                }
-                ashenBulletKin.draw();
-            }
+        world.touch(player);
+        if (!GameEvents.isProjectileBurstEnabled()) {
+            world.shoot(frame, fireballs, player);
+            return;
         }
+        long shootStart = System.nanoTime();
+        int fired = world.shoot(frame, fireballs, player);
+        GameEvents.projectileBurst(roomName, fired, fireballs.size(), System.nanoTime() - shootStart);
+    }
 
-        obstacles.clear();
-        obstacles.addAll(walls);
-        obstacles.add(primaryDoor);
-        obstacles.add(secondaryDoor);
-
-        for (int i = fireballs.size() - 1; i >= 0; i--) {
-            Fireball fireball = fireballs.get(i);
-            if (!fireball.isActive()) {
-                fireballs.remove(i);      // remove dead one, continue loop
-                continue;
-            }
-            fireball.update(player, obstacles);
-            fireball.draw();
-        }
+    /**
+     * Moves all fireballs and removes the ones that are no longer active.
+     */
+    void updateFireballs() {
+        fireballs.update(player, projectileBlockers);
+    }
 
-        for (int i = player.getBullets().size() - 1; i >= 0; i--) {
-            Bullet bullet = player.getBullets().get(i);
-            if (!bullet.isActive()) {
-                player.getBullets().remove(i);
+    /**
+     * Moves the player's bullets and resolves their hits on enemies and destructible objects.
+     */
+    void updatePlayerBullets() {
+        long time = FrameProfiler.start();
+        BulletStore bullets = player.getBullets();
+        bullets.update(projectileBlockers);
+        time = FrameProfiler.lap(FrameProfiler.Phase.PLAYER_BULLETS, time);
+        BoundingBox basketBox = basket.getBoundingBox();
+        BoundingBox tableBox = table.getBoundingBox();
+        // before the enemies, as a bullet that hits an enemy can still break the basket or table on its way
+        for (int i = 0; i < bullets.size(); i++) {
+            if (!bullets.isActive(i)) {
                 continue;
             }
-            bullet.update(obstacles);
-            for (BulletKin bk : bulletKins) {
-                if (bk.isActive() && bullet.getBoundingBox().intersects(bk.getBoundingBox())) {
-                    bk.receiveDamage(bullet.getDamage());
-                    bullet.setActive(false);
-                    if(bk.isDead()){
-                        player.applyPerkOnKill(bk.getCoinValue());
-                    }
-                    break;
-                }
-            }
-            for (AshenBulletKin abk : ashenBulletKins) {
-                if (abk.isActive() && bullet.getBoundingBox().intersects(abk.getBoundingBox())) {
-                    abk.receiveDamage(bullet.getDamage());
-                    bullet.setActive(false);
-                    if(abk.isDead()){
-                        player.applyPerkOnKill(abk.getCoinValue());
-                    }
-                    break;
-                }
-            }
-            if (keyBulletKin.isActive() && bullet.getBoundingBox().intersects(keyBulletKin.getBoundingBox())) {
-                keyBulletKin.receiveDamage(bullet.getDamage());
-                bullet.setActive(false);
-                break;
-            }
-            if (!basket.isDestoryed() && bullet.getBoundingBox().intersects(basket.getBoundingBox())) {
+            if (!basket.isDestoryed() && bullets.intersects(i, basketBox)) {
                 player.earnCoins(basket.getCoins());
                 basket.setIsDestoryed(true);
+                solids.remove(basketSolid);
+                solidsChanged();
             }
-            if (!table.isDestoryed() && bullet.getBoundingBox().intersects(table.getBoundingBox())) {
+            if (!table.isDestoryed() && bullets.intersects(i, tableBox)) {
                 table.setIsDestoryed(true);
+                solids.remove(tableSolid);
+                solidsChanged();
             }
-            bullet.draw();
         }
+        time = FrameProfiler.lap(FrameProfiler.Phase.DESTRUCTIBLES, time);
+        world.hit(bullets, player);
+        FrameProfiler.lap(FrameProfiler.Phase.PLAYER_BULLETS, time);
+    }
 
-
-        for (Wall wall: walls) {
-            wall.update(player);
-            wall.draw();
+    /**
+     * Resolves the player's collisions with the walls, table, basket and rivers around it.
+     */
+    void updateTerrain() {
+        long time = FrameProfiler.start();
+        nearbySolids.clear();
+        solids.query(player.getBoundingBox(), nearbySolids);
+        // indexed loops, as iterating with for-each would allocate an iterator every tick
+        for (int i = 0; i < nearbySolids.size(); i++) {
+            nearbySolids.get(i).update(player);
         }
+        time = FrameProfiler.lap(FrameProfiler.Phase.WALLS, time);
 
-        for (River river: rivers) {
-            river.update(player);
-            river.draw();
+        nearbyRivers.clear();
+        riverGrid.query(player.getBoundingBox(), nearbyRivers);
+        for (int i = 0; i < nearbyRivers.size(); i++) {
+            nearbyRivers.get(i).update(player);
         }
+        FrameProfiler.lap(FrameProfiler.Phase.RIVERS, time);
+    }
 
-        for (TreasureBox treasureBox: treasureBoxes) {
-            if (treasureBox.isActive()) {
-                treasureBox.update(input, player);
-                treasureBox.draw();
-            }
+    /**
+     * Renders all active objects in the room. The walls, rivers, table and basket are found through the grids
+     * indexing them, so only the ones in view are visited however large the room is.
+     */
+    @Override
+    public void draw() {
+        primaryDoor.draw();
+        secondaryDoor.draw();
+
+        // the grid of solids has the table and basket only until they are destroyed
+        Camera.getView(view);
+        visibleSolids.clear();
+        solids.query(view, visibleSolids);
+        for (int i = 0; i < visibleSolids.size(); i++) {
+            visibleSolids.get(i).draw();
+        }
+        visibleRivers.clear();
+        riverGrid.query(view, visibleRivers);
+        for (int i = 0; i < visibleRivers.size(); i++) {
+            visibleRivers.get(i).draw();
         }
 
+        world.draw();
+        fireballs.draw();
+
         if (player != null) {
-            player.update(input);
-            player.draw();
+            player.getBullets().draw();
         }
 
-        if (noMoreEnemies() && !isComplete()) {
-            setComplete(true);
-            unlockAllDoors();
+        if (player != null) {
+            player.draw();
         }
     }
 
@@ -289,6 +359,7 @@ public class BattleRoom {
     /**
      * Requests this room to stop updating after the current call.
      */
+    @Override
     public void stopCurrentUpdateCall() {
         stopCurrentUpdateCall = true;
     }
@@ -296,6 +367,7 @@ public class BattleRoom {
      * Sets the player instance for this room.
      * @param player The player to control and render.
      */
+    @Override
     public void setPlayer(Player player) {
         this.player = player;
     }
@@ -312,11 +384,49 @@ public class BattleRoom {
         }
     }
 
+    /**
+     * Prepares the door leading back to the room the player comes from; entering a room that is not complete yet
+     * locks that door again once the player steps off it, which wakes the enemies.
+     * @param fromRoomName The name of the room the player comes from.
+     * @return The door to place the player at.
+     */
+    @Override
+    public Door enterFrom(String fromRoomName) {
+        Door door = findDoorByDestination(fromRoomName);
+        if (!isComplete()) {
+            door.setShouldLockAgain();
+        }
+        door.unlock(true);
+        return door;
+    }
+
     private void unlockAllDoors() {
         primaryDoor.unlock(false);
         secondaryDoor.unlock(false);
     }
 
+    /**
+     * Returns the fireballs currently shot by enemies in this room.
+     * @return The store of fireballs.
+     */
+    public FireballStore getFireballs() {
+        return fireballs;
+    }
+
+    /**
+     * Adds the state of this room's objects to a checksum.
+     * @param checksum The checksum to add to.
+     */
+    @Override
+    public void addTo(Checksum checksum) {
+        checksum.add(frame);
+        checksum.add(isComplete);
+        checksum.add(basket.isDestoryed());
+        checksum.add(table.isDestoryed());
+        world.addTo(checksum);
+        fireballs.addTo(checksum);
+    }
+
     /**
      * Indicates whether this room is complete.
      * @return True if all enemies are defeated, otherwise false.
@@ -336,16 +446,16 @@ public class BattleRoom {
      * Activates all enemies and projectiles in this room.
      */
     public void activateEnemies() {
-        keyBulletKin.setActive(true);
-        for (BulletKin bulletKin: bulletKins) {
-            bulletKin.setActive(true);
-        }
-        for(AshenBulletKin ashenBulletKin: ashenBulletKins) {
-            ashenBulletKin.setActive(true);
-        }
-        for (Fireball fireball: fireballs) {
-            fireball.setActive(true);
+        GameEvents.BattleStart event = new GameEvents.BattleStart();
+        event.begin();
+        world.wake();
+        for (int i = 0; i < fireballs.size(); i++) {
+            fireballs.setActive(i, true);
         }
+        event.room = roomName;
+        event.enemies = world.healths.size();
+        event.fireballs = fireballs.size();
+        event.commit();
     }
 
     /**
@@ -353,30 +463,6 @@ public class BattleRoom {
      * @return True if all enemies are dead, otherwise false.
      */
     public boolean noMoreEnemies() {
-        return keyBulletKin.isDead() && noMoreBulletKins() && noMoreAshenBulletKins();
-    }
-    /**
-     * Checks if all BulletKins are dead.
-     * @return True if no BulletKin remains active, otherwise false.
-     */
-    public boolean noMoreBulletKins(){
-        for (BulletKin bulletKin: bulletKins) {
-            if (!bulletKin.isDead()){
-                return false;
-            }
-        }
-        return true;
-    }
-    /**
-     * Checks if all AshenBulletKins are dead.
-     * @return True if no AshenBulletKin remains active, otherwise false.
-     */
-    public boolean noMoreAshenBulletKins(){
-        for (AshenBulletKin ashenBulletKin: ashenBulletKins) {
-            if (!ashenBulletKin.isDead()){
-                return false;
-            }
-        }
-        return true;
+        return world.noMoreEnemies();
     }
 }
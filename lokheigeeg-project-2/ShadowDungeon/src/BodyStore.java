@@ -0,0 +1,96 @@
+import java.util.Arrays;
+
+/**
+ * Body components: where an entity is, how large it is and the sprite it is drawn with.
+ */
+public class BodyStore extends ComponentStore {
+    /** Centre x-coordinate of each body. */
+    public double[] x = new double[0];
+    /** Centre y-coordinate of each body. */
+    public double[] y = new double[0];
+    /** Centre x-coordinate of each body at the previous tick, for render interpolation. */
+    public double[] lastX = new double[0];
+    /** Centre y-coordinate of each body at the previous tick, for render interpolation. */
+    public double[] lastY = new double[0];
+    /** Half the sprite width of each body. */
+    public double[] halfWidth = new double[0];
+    /** Half the sprite height of each body. */
+    public double[] halfHeight = new double[0];
+    /** The sprite each body is drawn with. */
+    public Sprite[] sprite = new Sprite[0];
+
+    /**
+     * Creates an empty store.
+     */
+    public BodyStore() {
+        grow(capacity());
+    }
+
+    /**
+     * Gives an entity a body.
+     * @param entity The entity.
+     * @param image The sprite the entity is drawn with, which also sets its size.
+     * @param startX The x-coordinate of the entity's centre.
+     * @param startY The y-coordinate of the entity's centre.
+     * @return The slot of the new body.
+     */
+    public int add(int entity, Sprite image, double startX, double startY) {
+        int slot = add(entity);
+        x[slot] = startX;
+        y[slot] = startY;
+        lastX[slot] = startX;
+        lastY[slot] = startY;
+        halfWidth[slot] = image.getWidth() / 2;
+        halfHeight[slot] = image.getHeight() / 2;
+        sprite[slot] = image;
+        return slot;
+    }
+
+    /**
+     * Checks whether a body overlaps the given box, including touching edges.
+     * @param slot The slot of the body.
+     * @param box The box to test against.
+     * @return True if they overlap, otherwise false.
+     */
+    public boolean intersects(int slot, BoundingBox box) {
+        return box.intersects(x[slot] - halfWidth[slot], y[slot] - halfHeight[slot],
+                x[slot] + halfWidth[slot], y[slot] + halfHeight[slot]);
+    }
+
+    /**
+     * Replaces the bodies in this store with copies of another store's.
+     * @param other The store to copy.
+     */
+    public void copyFrom(BodyStore other) {
+        copyEntitiesFrom(other);
+        System.arraycopy(other.x, 0, x, 0, size);
+        System.arraycopy(other.y, 0, y, 0, size);
+        System.arraycopy(other.lastX, 0, lastX, 0, size);
+        System.arraycopy(other.lastY, 0, lastY, 0, size);
+        System.arraycopy(other.halfWidth, 0, halfWidth, 0, size);
+        System.arraycopy(other.halfHeight, 0, halfHeight, 0, size);
+        System.arraycopy(other.sprite, 0, sprite, 0, size);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        lastX[to] = lastX[from];
+        lastY[to] = lastY[from];
+        halfWidth[to] = halfWidth[from];
+        halfHeight[to] = halfHeight[from];
+        sprite[to] = sprite[from];
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        lastX = Arrays.copyOf(lastX, capacity);
+        lastY = Arrays.copyOf(lastY, capacity);
+        halfWidth = Arrays.copyOf(halfWidth, capacity);
+        halfHeight = Arrays.copyOf(halfHeight, capacity);
+        sprite = Arrays.copyOf(sprite, capacity);
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Axis-aligned bounding box that is kept and updated in place, so collision checks do not allocate.
+ * Static objects compute theirs once; moving objects move theirs along with them.
+ */
+public class BoundingBox {
+    private double left;
+    private double top;
+    private double right;
+    private double bottom;
+
+    /**
+     * Creates the bounding box of a sprite centred at the given position.
+     * @param sprite The sprite whose size the box takes.
+     * @param x The x-coordinate of the centre.
+     * @param y The y-coordinate of the centre.
+     */
+    public BoundingBox(Sprite sprite, double x, double y) {
+        set(sprite, x, y);
+    }
+
+    /**
+     * Creates a bounding box with the given edges.
+     * @param left The smallest x-coordinate.
+     * @param top The smallest y-coordinate.
+     * @param right The largest x-coordinate.
+     * @param bottom The largest y-coordinate.
+     */
+    public BoundingBox(double left, double top, double right, double bottom) {
+        setEdges(left, top, right, bottom);
+    }
+
+    /**
+     * Moves the edges of the box.
+     * @param left The smallest x-coordinate.
+     * @param top The smallest y-coordinate.
+     * @param right The largest x-coordinate.
+     * @param bottom The largest y-coordinate.
+     */
+    public void setEdges(double left, double top, double right, double bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    /**
+     * Resizes and moves the box to fit a sprite centred at the given position.
+     * @param sprite The sprite whose size the box takes.
+     * @param x The x-coordinate of the centre.
+     * @param y The y-coordinate of the centre.
+     */
+    public void set(Sprite sprite, double x, double y) {
+        double halfWidth = sprite.getWidth() / 2;
+        double halfHeight = sprite.getHeight() / 2;
+        left = x - halfWidth;
+        top = y - halfHeight;
+        right = x + halfWidth;
+        bottom = y + halfHeight;
+    }
+
+    /**
+     * Moves the box so that it is centred at the given position, keeping its size.
+     * @param x The x-coordinate of the centre.
+     * @param y The y-coordinate of the centre.
+     */
+    public void moveTo(double x, double y) {
+        double halfWidth = (right - left) / 2;
+        double halfHeight = (bottom - top) / 2;
+        left = x - halfWidth;
+        top = y - halfHeight;
+        right = x + halfWidth;
+        bottom = y + halfHeight;
+    }
+
+    /**
+     * Checks whether this box overlaps another, including touching edges.
+     * @param other The other box.
+     * @return True if the boxes overlap, false otherwise.
+     */
+    public boolean intersects(BoundingBox other) {
+        return right >= other.left && left <= other.right && bottom >= other.top && top <= other.bottom;
+    }
+
+    /**
+     * Checks whether this box overlaps the given area, including touching edges.
+     * @param areaLeft The smallest x-coordinate of the area.
+     * @param areaTop The smallest y-coordinate of the area.
+     * @param areaRight The largest x-coordinate of the area.
+     * @param areaBottom The largest y-coordinate of the area.
+     * @return True if they overlap, false otherwise.
+     */
+    public boolean intersects(double areaLeft, double areaTop, double areaRight, double areaBottom) {
+        return right >= areaLeft && left <= areaRight && bottom >= areaTop && top <= areaBottom;
+    }
+
+    /**
+     * Returns the smallest x-coordinate of the box.
+     * @return The left edge.
+     */
+    public double left() {
+        return left;
+    }
+
+    /**
+     * Returns the smallest y-coordinate of the box.
+     * @return The top edge.
+     */
+    public double top() {
+        return top;
+    }
+
+    /**
+     * Returns the largest x-coordinate of the box.
+     * @return The right edge.
+     */
+    public double right() {
+        return right;
+    }
+
+    /**
+     * Returns the largest y-coordinate of the box.
+     * @return The bottom edge.
+     */
+    public double bottom() {
+        return bottom;
+    }
+
+}
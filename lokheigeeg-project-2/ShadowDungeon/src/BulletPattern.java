@@ -0,0 +1,133 @@
+/**
+ * A pattern of fireballs an enemy shoots, as data read from the game properties, so a new way of shooting needs a
+ * new entry in app.properties rather than new code.
+ * <p>
+ * Each shot fires one or more volleys a fixed number of ticks apart. A volley fans a number of fireballs out evenly
+ * over an arc, or all the way round when the arc is 360 degrees, and the pattern turns by a fixed angle after every
+ * volley. The kind of pattern decides where the arc points and how the fireballs fly: aimed, spread and burst
+ * patterns centre it on the player, rings and spirals start it where the last volley left off, and homing fireballs
+ * steer towards the player all the way instead of flying straight.
+ */
+public class BulletPattern {
+    /**
+     * The kinds of pattern.
+     */
+    public enum Kind {
+        /** Fireballs fly straight at where the player is. */
+        AIMED,
+        /** A fan of fireballs centred on the player. */
+        SPREAD,
+        /** Fireballs all the way round the enemy. */
+        RING,
+        /** Rings or fans that turn after every volley. */
+        SPIRAL,
+        /** Several aimed volleys in quick succession. */
+        BURST,
+        /** Fireballs that home in on the player. */
+        HOMING
+    }
+
+    private static final double FULL_CIRCLE = 360;
+
+    /** The name of the pattern, as in its pattern.&lt;name&gt; property. */
+    public final String name;
+    /** The kind of pattern. */
+    public final Kind kind;
+    /** Fireballs per volley. */
+    public final int count;
+    /** Degrees the fireballs of a volley fan out over; 360 for a full ring. */
+    public final double arc;
+    /** Fireball speed in pixels per base tick. */
+    public final double speed;
+    /** Volleys per shot. */
+    public final int volleys;
+    /** Base ticks between the volleys of a shot. */
+    public final double volleyInterval;
+    /** Degrees the pattern turns after every volley. */
+    public final double spin;
+
+    /**
+     * Creates a pattern.
+     * @param name The name of the pattern.
+     * @param kind The kind of pattern.
+     * @param count Fireballs per volley.
+     * @param arc Degrees the fireballs of a volley fan out over.
+     * @param speed Fireball speed in pixels per base tick.
+     * @param volleys Volleys per shot.
+     * @param volleyInterval Base ticks between volleys.
+     * @param spin Degrees the pattern turns after every volley.
+     */
+    public BulletPattern(String name, Kind kind, int count, double arc, double speed, int volleys,
+                         double volleyInterval, double spin) {
+        this.name = name;
+        this.kind = kind;
+        this.count = count;
+        this.arc = arc;
+        this.speed = speed;
+        this.volleys = volleys;
+        this.volleyInterval = volleyInterval;
+        this.spin = spin;
+    }
+
+    /**
+     * Parses a pattern from its property value: the kind, then the fireballs per volley, the arc in degrees, the
+     * speed, the volleys per shot, the base ticks between volleys and the degrees turned per volley, separated by
+     * commas (e.g. "spiral,4,360,2.5,12,6,15").
+     * @param name The name of the pattern.
+     * @param value The property value.
+     * @return The pattern.
+     */
+    public static BulletPattern parse(String name, String value) {
+        String[] fields = value.split(",");
+        if (fields.length != 7) {
+            throw new IllegalArgumentException("Bullet pattern " + name + " needs 7 values: " + value);
+        }
+        return new BulletPattern(name, Kind.valueOf(fields[0].trim().toUpperCase()), Integer.parseInt(fields[1].trim()),
+                Double.parseDouble(fields[2]), Double.parseDouble(fields[3]), Integer.parseInt(fields[4].trim()),
+                Double.parseDouble(fields[5]), Double.parseDouble(fields[6]));
+    }
+
+    /**
+     * Checks whether the pattern points at the player rather than turning on its own.
+     * @return True for aimed, spread and burst patterns, otherwise false.
+     */
+    public boolean isAimed() {
+        return kind == Kind.AIMED || kind == Kind.SPREAD || kind == Kind.BURST;
+    }
+
+    /**
+     * Fires one volley into a store of fireballs.
+     * @param fireballs The store the fireballs are spawned into.
+     * @param x The x-coordinate the fireballs are fired from.
+     * @param y The y-coordinate the fireballs are fired from.
+     * @param targetX The x-coordinate of the player.
+     * @param targetY The y-coordinate of the player.
+     * @param turn The degrees the pattern has turned so far, which rings and spirals start from.
+     * @return The number of fireballs fired, which is less than the count if the store drops new ones when full.
+     */
+    public int emit(FireballStore fireballs, double x, double y, double targetX, double targetY, double turn) {
+        double speedPerTick = GameClock.perTick(speed);
+        int fired = 0;
+        if (kind == Kind.HOMING) {
+            for (int i = 0; i < count; i++) {
+                if (fireballs.shootHoming(x, y, speedPerTick) != ProjectileStore.NONE) {
+                    fired++;
+                }
+            }
+            return fired;
+        }
+
+        double centre = isAimed() ? Math.toDegrees(Math.atan2(targetY - y, targetX - x)) : turn;
+        // a full ring spaces its fireballs evenly without doubling up where it closes
+        double step = arc >= FULL_CIRCLE ? FULL_CIRCLE / count : count > 1 ? arc / (count - 1) : 0;
+        double first = arc >= FULL_CIRCLE ? centre : centre - step * (count - 1) / 2;
+        for (int i = 0; i < count; i++) {
+            double angle = Math.toRadians(first + step * i);
+            if (fireballs.fire(x, y, Math.cos(angle) * speedPerTick, Math.sin(angle) * speedPerTick)
+                    != ProjectileStore.NONE) {
+                fired++;
+            }
+        }
+        return fired;
+    }
+}
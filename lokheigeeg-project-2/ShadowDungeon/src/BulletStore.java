@@ -0,0 +1,53 @@
+/**
+ * The bullets fired by the player, which fly in a straight line until they leave the room or hit something.
+ */
+public class BulletStore extends ProjectileStore {
+    private final double speed;
+    private final double damagePerHit;
+
+    /**
+     * Creates an empty store of bullets.
+     * @param capacity The maximum number of live bullets.
+     * @param eviction What to do when firing while the store is full.
+     */
+    public BulletStore(int capacity, Eviction eviction) {
+        super(Assets.getSprite("res/bullet.png"), capacity, eviction);
+        this.speed = GameClock.perTick(ShadowDungeon.getConfig().bulletSpeed);
+        this.damagePerHit = ShadowDungeon.getConfig().weaponStandardDamage;
+    }
+
+    /**
+     * Fires a bullet.
+     * @param startX The x-coordinate the bullet is fired from.
+     * @param startY The y-coordinate the bullet is fired from.
+     * @param dirX The x component of the normalised direction the bullet will travel.
+     * @param dirY The y component of the normalised direction the bullet will travel.
+     * @return The slot of the bullet, or {@link #NONE} if it was not fired.
+     */
+    public int fire(double startX, double startY, double dirX, double dirY) {
+        return spawn(startX, startY, dirX * speed, dirY * speed, damagePerHit);
+    }
+
+    /**
+     * Moves every bullet and deactivates the ones that leave the room or hit an obstacle.
+     * @param obstacles The obstacles bullets can collide with.
+     */
+    public void update(StaticGrid<? extends Obstacle> obstacles) {
+        update();
+        cullObstacles(obstacles);
+    }
+
+    /**
+     * Moves every bullet and deactivates the ones that leave the room, without checking for obstacles.
+     */
+    public void update() {
+        removeInactive();
+        for (int i = 0; i < size; i++) {
+            lastX[i] = x[i];
+            lastY[i] = y[i];
+            x[i] += vx[i];
+            y[i] += vy[i];
+        }
+        cullOffScreen();
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * The part of the current room shown in the window. The view follows the player, centred on it unless that would
+ * show something past an edge of the room, so a room no larger than the window is shown whole from its top-left
+ * corner.
+ * <p>
+ * Sprites are drawn in room coordinates; the {@link SpriteBatch} moves them into the view and skips the ones lying
+ * entirely outside it. Text is drawn in window coordinates.
+ */
+public class Camera {
+    private static double left = 0;
+    private static double top = 0;
+
+    private Camera() {
+    }
+
+    /**
+     * Centres the view on a point of the current room, as far as the edges of the room allow.
+     * @param x The x-coordinate to centre on.
+     * @param y The y-coordinate to centre on.
+     */
+    public static void follow(double x, double y) {
+        left = leftFor(x);
+        top = topFor(y);
+    }
+
+    /**
+     * Returns where the left edge of the view would be when following the given x-coordinate.
+     * @param x The x-coordinate followed.
+     * @return The x-coordinate of the left edge, in room coordinates.
+     */
+    public static double leftFor(double x) {
+        return Math.max(0, Math.min(x - ShadowDungeon.screenWidth / 2,
+                ShadowDungeon.roomWidth - ShadowDungeon.screenWidth));
+    }
+
+    /**
+     * Returns where the top edge of the view would be when following the given y-coordinate.
+     * @param y The y-coordinate followed.
+     * @return The y-coordinate of the top edge, in room coordinates.
+     */
+    public static double topFor(double y) {
+        return Math.max(0, Math.min(y - ShadowDungeon.screenHeight / 2,
+                ShadowDungeon.roomHeight - ShadowDungeon.screenHeight));
+    }
+
+    /**
+     * Returns the left edge of the view.
+     * @return The x-coordinate of the left edge, in room coordinates.
+     */
+    public static double getLeft() {
+        return left;
+    }
+
+    /**
+     * Returns the top edge of the view.
+     * @return The y-coordinate of the top edge, in room coordinates.
+     */
+    public static double getTop() {
+        return top;
+    }
+
+    /**
+     * Moves a box to cover the view, e.g. to find the objects of a room that are visible.
+     * @param view The box to move.
+     */
+    public static void getView(BoundingBox view) {
+        view.setEdges(left, top, left + ShadowDungeon.screenWidth, top + ShadowDungeon.screenHeight);
+    }
+}
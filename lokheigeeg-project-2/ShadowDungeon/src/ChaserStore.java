@@ -0,0 +1,47 @@
+import java.util.Arrays;
+
+/**
+ * Chase components of the enemies that walk towards the player along the room's {@link FlowField}.
+ */
+public class ChaserStore extends ComponentStore {
+    /** The distance each chaser covers per tick. */
+    public double[] speed = new double[0];
+
+    /**
+     * Creates an empty store.
+     */
+    public ChaserStore() {
+        grow(capacity());
+    }
+
+    /**
+     * Makes an entity chase the player.
+     * @param entity The entity.
+     * @param walkSpeed The distance covered per tick.
+     * @return The slot of the new component.
+     */
+    public int add(int entity, double walkSpeed) {
+        int slot = add(entity);
+        speed[slot] = walkSpeed;
+        return slot;
+    }
+
+    /**
+     * Replaces the chase components in this store with copies of another store's.
+     * @param other The store to copy.
+     */
+    public void copyFrom(ChaserStore other) {
+        copyEntitiesFrom(other);
+        System.arraycopy(other.speed, 0, speed, 0, size);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        speed[to] = speed[from];
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        speed = Arrays.copyOf(speed, capacity);
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Running hash of the game state, so a replay can tell the tick it stops matching the recorded game.
+ * Game objects add their own fields; the order in which values are added matters.
+ */
+public class Checksum {
+    private int hash;
+
+    /**
+     * Creates an empty checksum.
+     */
+    public Checksum() {
+        reset();
+    }
+
+    /**
+     * Starts over, forgetting every value added so far.
+     */
+    public void reset() {
+        hash = 17;
+    }
+
+    /**
+     * Adds a number to the checksum.
+     * @param value The value to add.
+     */
+    public void add(double value) {
+        hash = 31 * hash + Double.hashCode(value);
+    }
+
+    /**
+     * Adds a number to the checksum.
+     * @param value The value to add.
+     */
+    public void add(int value) {
+        hash = 31 * hash + value;
+    }
+
+    /**
+     * Adds a flag to the checksum.
+     * @param value The value to add.
+     */
+    public void add(boolean value) {
+        hash = 31 * hash + (value ? 1 : 0);
+    }
+
+    /**
+     * Adds a string to the checksum.
+     * @param value The value to add.
+     */
+    public void add(String value) {
+        hash = 31 * hash + value.hashCode();
+    }
+
+    /**
+     * Returns the checksum of the values added since the last reset.
+     * @return The checksum.
+     */
+    public int get() {
+        return hash;
+    }
+}
@@ -0,0 +1,143 @@
+import java.util.Arrays;
+
+/**
+ * Packed storage for one kind of component, kept as a sparse set: the components of all entities that have one sit
+ * densely in slots 0 to size()-1, so systems iterate plain arrays, and a sparse table maps an entity's index to its
+ * slot for lookups. Removing a component moves the last one into its slot, like {@link ProjectileStore}.
+ * Subclasses hold the component's fields as parallel arrays and move and grow them when asked.
+ */
+public abstract class ComponentStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The entity owning the component in each slot. */
+    protected int[] entities = new int[INITIAL_CAPACITY];
+    /** The number of components stored. */
+    protected int size = 0;
+    private int[] sparse = new int[0];
+
+    /**
+     * Creates an empty store; subclasses allocate their field arrays with {@link #capacity()} entries.
+     */
+    protected ComponentStore() {
+    }
+
+    /**
+     * Gives an entity a component in a new slot, whose fields the caller then fills in.
+     * @param entity The entity, which must not have this component yet.
+     * @return The slot of the new component.
+     */
+    protected int add(int entity) {
+        int index = World.indexOf(entity);
+        if (index >= sparse.length) {
+            int oldLength = sparse.length;
+            sparse = Arrays.copyOf(sparse, Math.max(INITIAL_CAPACITY, index * 2));
+            Arrays.fill(sparse, oldLength, sparse.length, World.NONE);
+        }
+        if (size == entities.length) {
+            entities = Arrays.copyOf(entities, size * 2);
+            grow(size * 2);
+        }
+        entities[size] = entity;
+        sparse[index] = size;
+        return size++;
+    }
+
+    /**
+     * Removes an entity's component, if it has one, moving the last component into its slot.
+     * @param entity The entity.
+     */
+    public void remove(int entity) {
+        int slot = slotOf(entity);
+        if (slot == World.NONE) {
+            return;
+        }
+        int last = --size;
+        if (slot != last) {
+            move(last, slot);
+            entities[slot] = entities[last];
+            sparse[World.indexOf(entities[slot])] = slot;
+        }
+        sparse[World.indexOf(entity)] = World.NONE;
+    }
+
+    /**
+     * Replaces the entities in this store with those of another store, reusing the arrays when they are large
+     * enough. Subclasses then copy their fields for the first size() slots.
+     * @param other The store to copy.
+     */
+    protected void copyEntitiesFrom(ComponentStore other) {
+        if (entities.length < other.size) {
+            entities = new int[other.entities.length];
+            grow(other.entities.length);
+        }
+        System.arraycopy(other.entities, 0, entities, 0, other.size);
+        if (sparse.length < other.sparse.length) {
+            sparse = new int[other.sparse.length];
+        }
+        System.arraycopy(other.sparse, 0, sparse, 0, other.sparse.length);
+        Arrays.fill(sparse, other.sparse.length, sparse.length, World.NONE);
+        size = other.size;
+    }
+
+    /**
+     * Finds the slot of an entity's component.
+     * @param entity The entity.
+     * @return The slot, or {@link World#NONE} if the entity has no such component.
+     */
+    public int slotOf(int entity) {
+        int index = World.indexOf(entity);
+        if (index >= sparse.length) {
+            return World.NONE;
+        }
+        int slot = sparse[index];
+        // the sparse entry may belong to an earlier entity that reused the same index
+        return slot != World.NONE && entities[slot] == entity ? slot : World.NONE;
+    }
+
+    /**
+     * Checks whether an entity has this component.
+     * @param entity The entity.
+     * @return True if it has one, otherwise false.
+     */
+    public boolean has(int entity) {
+        return slotOf(entity) != World.NONE;
+    }
+
+    /**
+     * Returns the entity owning the component in a slot.
+     * @param slot The slot, below size().
+     * @return The entity.
+     */
+    public int entityAt(int slot) {
+        return entities[slot];
+    }
+
+    /**
+     * Returns the number of components stored.
+     * @return The number of components.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of slots currently allocated.
+     * @return The capacity of the field arrays.
+     */
+    protected int capacity() {
+        return entities.length;
+    }
+
+    /**
+     * Copies the fields of one slot into another.
+     * @param from The slot to copy from.
+     * @param to The slot to copy into.
+     */
+    protected abstract void move(int from, int to);
+
+    /**
+     * Grows the field arrays to the given capacity, keeping their contents.
+     * @param capacity The new number of slots.
+     */
+    protected abstract void grow(int capacity);
+}
@@ -0,0 +1,54 @@
+import java.util.Arrays;
+
+/**
+ * Contact components of the enemies that hurt the player while touching it.
+ */
+public class ContactStore extends ComponentStore {
+    /** Damage dealt to the player for each tick of contact. */
+    public double[] damage = new double[0];
+    /** Whether each entity dies the moment it touches the player. */
+    public boolean[] diesOnContact = new boolean[0];
+
+    /**
+     * Creates an empty store.
+     */
+    public ContactStore() {
+        grow(capacity());
+    }
+
+    /**
+     * Makes an entity hurt the player on contact.
+     * @param entity The entity.
+     * @param contactDamage The damage dealt per tick of contact.
+     * @param dies Whether the entity dies on contact.
+     * @return The slot of the new component.
+     */
+    public int add(int entity, double contactDamage, boolean dies) {
+        int slot = add(entity);
+        damage[slot] = contactDamage;
+        diesOnContact[slot] = dies;
+        return slot;
+    }
+
+    /**
+     * Replaces the contact components in this store with copies of another store's.
+     * @param other The store to copy.
+     */
+    public void copyFrom(ContactStore other) {
+        copyEntitiesFrom(other);
+        System.arraycopy(other.damage, 0, damage, 0, size);
+        System.arraycopy(other.diesOnContact, 0, diesOnContact, 0, size);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        damage[to] = damage[from];
+        diesOnContact[to] = diesOnContact[from];
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        damage = Arrays.copyOf(damage, capacity);
+        diesOnContact = Arrays.copyOf(diesOnContact, capacity);
+    }
+}
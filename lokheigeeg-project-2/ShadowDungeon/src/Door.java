@@ -1,21 +1,20 @@
-import bagel.Image;
 import bagel.util.Point;
-import bagel.util.Rectangle;
 
 /**
  * Door which can be locked or unlocked, allows the player to move to the room it's connected to
  */
 public class Door implements Obstacle {
     private final Point position;
-    private Image image;
+    private Sprite image;
+    private final BoundingBox box;
     public final String toRoomName;
     public BattleRoom battleRoom; // only set if this door is inside a Battle Room
     private boolean unlocked = false;
     private boolean justEntered = false; // when the player only just entered this door's room
     private boolean shouldLockAgain = false;
 
-    private static final Image LOCKED = new Image("res/locked_door.png");
-    private static final Image UNLOCKED = new Image("res/unlocked_door.png");
+    private static final Sprite LOCKED = Assets.getSprite("res/locked_door.png");
+    private static final Sprite UNLOCKED = Assets.getSprite("res/unlocked_door.png");
 
     /**
      * Creates a new door connected to another room.
@@ -25,6 +24,7 @@ public class Door implements Obstacle {
     public Door(Point position, String toRoomName) {
         this.position = position;
         this.image = LOCKED;
+        this.box = new BoundingBox(image, position.x, position.y);
         this.toRoomName = toRoomName;
     }
     /**
@@ -36,6 +36,7 @@ public class Door implements Obstacle {
     public Door(Point position, String toRoomName, BattleRoom battleRoom) {
         this.position = position;
         this.image = LOCKED;
+        this.box = new BoundingBox(image, position.x, position.y);
         this.toRoomName = toRoomName;
         this.battleRoom = battleRoom;
     }
@@ -45,6 +46,14 @@ public class Door implements Obstacle {
      * @param player The player to check for collision and transition.
      */
     public void update(Player player) {
+        // start building the room behind this door while the player walks up to it
+        double dx = player.getX() - position.x;
+        double dy = player.getY() - position.y;
+        double prefetchDistance = ShadowDungeon.getConfig().doorPrefetchDistance;
+        if (dx * dx + dy * dy < prefetchDistance * prefetchDistance) {
+            ShadowDungeon.getRooms().prefetch(toRoomName);
+        }
+
         if (hasCollidedWith(player)) {
             onCollideWith(player);
         } else {
@@ -55,7 +64,7 @@ public class Door implements Obstacle {
      * Draws the door on the screen.
      */
     public void draw() {
-        image.draw(position.x, position.y);
+        image.draw(position.x, position.y, SpriteBatch.Layer.DOORS);
     }
 
     /**
@@ -64,7 +73,7 @@ public class Door implements Obstacle {
      */
     public void unlock(boolean justEntered) {
         unlocked = true;
-        image = UNLOCKED;
+        setImage(UNLOCKED);
         this.justEntered = justEntered;
     }
     /**
@@ -73,7 +82,7 @@ public class Door implements Obstacle {
      * @return True if the player collides with the door, false otherwise.
      */
     public boolean hasCollidedWith(Player player) {
-        return image.getBoundingBoxAt(position).intersects(player.getCurrImage().getBoundingBoxAt(player.getPosition()));
+        return box.intersects(player.getBoundingBox());
     }
 
     private void onCollideWith(Player player) {
@@ -82,7 +91,7 @@ public class Door implements Obstacle {
             ShadowDungeon.changeRoom(toRoomName);
         }
         if (!unlocked) {
-            player.move(player.getPrevPosition().x, player.getPrevPosition().y);
+            player.moveBack();
         }
     }
 
@@ -94,17 +103,31 @@ public class Door implements Obstacle {
             // Battle Room activation conditions
             if (shouldLockAgain && battleRoom != null && !battleRoom.isComplete()) {
                 unlocked = false;
-                image = LOCKED;
+                setImage(LOCKED);
                 battleRoom.activateEnemies();
             }
         }
     }
+    /**
+     * Puts the door back in its state at the start of the game: locked and never entered.
+     */
+    public void reset() {
+        lock();
+        justEntered = false;
+        shouldLockAgain = false;
+    }
+
     /**
      * Locks the door and updates its image.
      */
     public void lock() {
         unlocked = false;
-        image = LOCKED;
+        setImage(LOCKED);
+    }
+
+    private void setImage(Sprite image) {
+        this.image = image;
+        box.set(image, position.x, position.y);
     }
     /**
      * Checks if the door is currently unlocked.
@@ -132,8 +155,8 @@ public class Door implements Obstacle {
      * @return The bounding box of this door.
      */
     @Override
-    public Rectangle getBoundingBox() {
-        return image.getBoundingBoxAt(position);
+    public BoundingBox getBoundingBox() {
+        return box;
     }
 
 }
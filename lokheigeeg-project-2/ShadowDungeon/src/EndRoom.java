@@ -1,69 +1,83 @@
-import bagel.Input;
 import bagel.Keys;
 
-import java.util.Map;
-import java.util.Properties;
-
 /**
  * Room where the game ends when the player either completes all rooms or dies
  */
-public class EndRoom {
+public class EndRoom implements Room {
     private Player player;
     private Door door;
     private RestartArea restartArea;
     private boolean isGameOver = false;
     private boolean stopCurrentUpdateCall = false; // this determines whether to prematurely stop the update execution
+    private final String roomName;
 
     /**
-     * Initializes the entities in the end room using game properties.
-     * @param gameProperties The properties file containing object configurations.
+     * Creates the room with the given name, whose layout initEntities reads.
+     * @param roomName The name of this room.
      */
-    public void initEntities(Properties gameProperties) {
-        // find the configuration of game objects for this room
-        for (Map.Entry<Object, Object> entry: gameProperties.entrySet()) {
-            String roomSuffix = String.format(".%s", ShadowDungeon.END_ROOM_NAME);
-            if (entry.getKey().toString().contains(roomSuffix)) {
-                String objectType = entry.getKey().toString().substring(0, entry.getKey().toString().length() - roomSuffix.length());
-                String propertyValue = entry.getValue().toString();
+    public EndRoom(String roomName) {
+        this.roomName = roomName;
+    }
 
-                switch (objectType) {
-                    case "door":
-                        String[] coordinates = propertyValue.split(",");
-                        door = new Door(IOUtils.parseCoords(propertyValue), coordinates[2]);
-                        break;
-                    case "restartarea":
-                        restartArea = new RestartArea(IOUtils.parseCoords(propertyValue));
-                        break;
-                    default:
-                }
-            }
-        }
+    /**
+     * Initializes room entities from the given game configuration.
+     * @param config The game configuration holding the object layout of this room.
+     */
+    @Override
+    public void initEntities(GameConfig config) {
+        RoomConfig layout = config.getRoom(roomName);
+        door = new Door(layout.door.position, layout.door.toRoomName);
+        restartArea = new RestartArea(layout.restartArea);
     }
 
     /**
-     * Updates and renders all objects in the end room.
-     * @param input The current user input.
+     * Puts the room back in its state at the start of the game, keeping the objects built by initEntities.
      */
-    public void update(Input input) {
-        UserInterface.drawEndMessage(!isGameOver);
+    @Override
+    public void reset() {
+        door.reset();
+        player = null;
+        isGameOver = false;
+        stopCurrentUpdateCall = false;
+    }
 
+    /**
+     * Updates all objects in the end room.
+     * @param input The current user input.
+     */
+    @Override
+    public void update(GameInput input) {
         // door should be locked if player got to this room by dying
         if (isGameOver) {
             findDoor().lock();
         }
 
-        // update and draw all game objects in this room
+        // update all game objects in this room
         door.update(player);
-        door.draw();
         if (stopUpdatingEarlyIfNeeded()) {
             return;
         }
 
-        restartArea.update(input, player);
-        restartArea.draw();
+        if (restartArea.update(input, player)) {
+            return;     // the rest of this update belongs to the game that was just reset
+        }
 
         if (player != null) {
             player.update(input);
+        }
+    }
+
+    /**
+     * Renders the end message and all objects in the end room.
+     */
+    @Override
+    public void draw() {
+        UserInterface.drawEndMessage(!isGameOver);
+
+        door.draw();
+        restartArea.draw();
+
+        if (player != null) {
             player.draw();
         }
     }
@@ -80,12 +94,14 @@ public class EndRoom {
      * Sets the player instance for this room.
      * @param player The player currently in this room.
      */
+    @Override
     public void setPlayer(Player player) {
         this.player = player;
     }
     /**
      * Requests to stop updating after the current frame.
      */
+    @Override
     public void stopCurrentUpdateCall() {
         stopCurrentUpdateCall = true;
     }
@@ -97,12 +113,41 @@ public class EndRoom {
         return door;
     }
     /**
-     * Gets the door that leads out of this room.
-     * @return The door object.
+     * Unlocks the door the player arrives through, which is the only door of this room.
+     * @param fromRoomName The name of the room the player comes from.
+     * @return The door to place the player at.
      */
-    public Door findDoorByDestination() {
+    @Override
+    public Door enterFrom(String fromRoomName) {
+        door.unlock(true);
         return door;
     }
+
+    /**
+     * Keeps nothing, as how this room looks depends only on how the player arrives.
+     * @return Null.
+     */
+    @Override
+    public RoomState save() {
+        return null;
+    }
+
+    /**
+     * Does nothing, as {@link #save()} keeps nothing.
+     * @param state The saved state.
+     */
+    @Override
+    public void restore(RoomState state) {
+    }
+
+    /**
+     * Adds the state of the door to a checksum.
+     * @param checksum The checksum to add to.
+     */
+    @Override
+    public void addTo(Checksum checksum) {
+        checksum.add(door.isUnlocked());
+    }
     /**
      * Marks the game as over.
      */
@@ -0,0 +1,111 @@
+/**
+ * The fireballs shot by enemies in a room, which damage the player on impact. Homing fireballs steer towards the
+ * player at their own speed; the rest fly straight and are removed when they leave the room.
+ */
+public class FireballStore extends ProjectileStore {
+    private final double damagePerHit;
+    private final boolean[] homing;
+    private final double[] speeds;
+
+    /**
+     * Creates an empty store of fireballs.
+     * @param capacity The maximum number of live fireballs.
+     * @param eviction What to do when shooting while the store is full.
+     */
+    public FireballStore(int capacity, Eviction eviction) {
+        super(Assets.getSprite("res/fireball.png"), capacity, eviction);
+        this.damagePerHit = ShadowDungeon.getConfig().fireballDamage;
+        this.homing = new boolean[capacity];
+        this.speeds = new double[capacity];
+    }
+
+    /**
+     * Shoots a fireball that homes in on the player.
+     * @param startX The x-coordinate the fireball is shot from.
+     * @param startY The y-coordinate the fireball is shot from.
+     * @param stepLength The distance the fireball covers per tick.
+     * @return The slot of the fireball, or {@link #NONE} if it was not shot.
+     */
+    public int shootHoming(double startX, double startY, double stepLength) {
+        int slot = spawn(startX, startY, 0, 0, damagePerHit);
+        if (slot != NONE) {
+            homing[slot] = true;
+            speeds[slot] = stepLength;
+        }
+        return slot;
+    }
+
+    /**
+     * Fires a fireball that flies straight until it hits something or leaves the room.
+     * @param startX The x-coordinate the fireball is fired from.
+     * @param startY The y-coordinate the fireball is fired from.
+     * @param velocityX The horizontal velocity in pixels per tick.
+     * @param velocityY The vertical velocity in pixels per tick.
+     * @return The slot of the fireball, or {@link #NONE} if it was not fired.
+     */
+    public int fire(double startX, double startY, double velocityX, double velocityY) {
+        int slot = spawn(startX, startY, velocityX, velocityY, damagePerHit);
+        if (slot != NONE) {
+            homing[slot] = false;
+            speeds[slot] = 0;
+        }
+        return slot;
+    }
+
+    @Override
+    public void remove(int slot) {
+        int last = size - 1;
+        homing[slot] = homing[last];
+        speeds[slot] = speeds[last];
+        super.remove(slot);
+    }
+
+    /**
+     * Moves every fireball, homing ones towards the player, damages the player with the ones that reach it, and
+     * deactivates the ones that hit the player or an obstacle or fly out of the room.
+     * @param player The player the fireballs home in on.
+     * @param obstacles The obstacles fireballs can collide with.
+     */
+    public void update(Player player, StaticGrid<? extends Obstacle> obstacles) {
+        removeInactive();
+        double targetX = player.getX();
+        double targetY = player.getY();
+        double maxX = ShadowDungeon.roomWidth - halfWidth;
+        double maxY = ShadowDungeon.roomHeight - halfHeight;
+        for (int i = 0; i < size; i++) {
+            lastX[i] = x[i];
+            lastY[i] = y[i];
+            // straight fireballs keep their velocity and go once they leave the room
+            if (!homing[i]) {
+                x[i] += vx[i];
+                y[i] += vy[i];
+                active[i] &= (x[i] >= halfWidth) & (x[i] <= maxX) & (y[i] >= halfHeight) & (y[i] <= maxY);
+                continue;
+            }
+            double stepLength = speeds[i];
+            double dx = targetX - x[i];
+            double dy = targetY - y[i];
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            // land on the player when it is within one step, otherwise take a full step towards it
+            boolean arrives = distance < stepLength;
+            double step = arrives ? 1 : stepLength / distance;
+            double nextX = x[i] + dx * step;
+            double nextY = y[i] + dy * step;
+            // a step that would leave the room is not taken
+            boolean moves = arrives || (nextX >= halfWidth && nextX <= maxX && nextY >= halfHeight && nextY <= maxY);
+            vx[i] = moves ? nextX - x[i] : 0;
+            vy[i] = moves ? nextY - y[i] : 0;
+            x[i] += vx[i];
+            y[i] += vy[i];
+        }
+
+        BoundingBox playerBox = player.getBoundingBox();
+        for (int i = 0; i < size; i++) {
+            if (active[i] && intersects(i, playerBox)) {
+                active[i] = false;
+                player.receiveDamage(damage[i]);
+            }
+        }
+        cullObstacles(obstacles);
+    }
+}
@@ -0,0 +1,181 @@
+import java.util.Arrays;
+
+/**
+ * Directions towards the player over a grid laid on a room, shared by every enemy chasing the player in it.
+ * <p>
+ * Cells an enemy cannot stand in, as it would overlap a wall or other obstacle, are blocked. When the player moves
+ * into another cell, a breadth-first search from the player's cell gives every cell its number of steps to the
+ * player, and each cell then points at the neighbour closest to the player, diagonals included as long as they do
+ * not cut the corner of a blocked cell. An enemy looks up the cell it stands in and walks the way it points, so
+ * pathing costs one pass over the room per cell the player enters, however many enemies follow the field, and
+ * nothing is allocated once the field is built.
+ */
+public class FlowField {
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final int[] NEIGHBOUR_X = {1, -1, 0, 0, 1, 1, -1, -1};  // straight neighbours first
+    private static final int[] NEIGHBOUR_Y = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final double DIAGONAL = Math.sqrt(0.5);
+
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final boolean[] blocked;
+    private final int[] distance;
+    private final int[] queue;
+    private final double[] directionX;
+    private final double[] directionY;
+    private int target = -1;
+
+    /**
+     * Creates a field over a room with no obstacles.
+     * @param width The width of the room.
+     * @param height The height of the room.
+     * @param cellSize The size of a cell; smaller cells find narrower gaps but take longer to update.
+     */
+    public FlowField(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        blocked = new boolean[columns * rows];
+        distance = new int[columns * rows];
+        queue = new int[columns * rows];
+        directionX = new double[columns * rows];
+        directionY = new double[columns * rows];
+    }
+
+    /**
+     * Blocks the cells whose centre is too close to an obstacle for an enemy to stand there, and unblocks the rest.
+     * Call again whenever the obstacles change; the directions are updated on the next {@link #setTarget}.
+     * @param obstacles The obstacles enemies walk around.
+     * @param halfWidth Half the width of the largest enemy following the field.
+     * @param halfHeight Half the height of the largest enemy following the field.
+     */
+    public void markObstacles(StaticGrid<?> obstacles, double halfWidth, double halfHeight) {
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                double x = (column + 0.5) * cellSize;
+                double y = (row + 0.5) * cellSize;
+                blocked[row * columns + column] = obstacles.overlapsAny(x - halfWidth, y - halfHeight, x + halfWidth,
+                        y + halfHeight);
+            }
+        }
+        target = -1;
+    }
+
+    /**
+     * Points the field at the player's position, updating the directions only if the player is in another cell
+     * than at the last update, or the obstacles have changed since.
+     * @param x The x-coordinate of the player.
+     * @param y The y-coordinate of the player.
+     * @return True if the directions were updated, otherwise false.
+     */
+    public boolean setTarget(double x, double y) {
+        int cell = cellOf(x, y);
+        if (cell == target) {
+            return false;
+        }
+        target = cell;
+        search();
+        point();
+        return true;
+    }
+
+    // counts the steps from every cell to the target; the target's own cell is searched from even when blocked
+    private void search() {
+        Arrays.fill(distance, UNREACHED);
+        int head = 0;
+        int tail = 0;
+        distance[target] = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int cell = queue[head++];
+            int column = cell % columns;
+            int row = cell / columns;
+            for (int n = 0; n < 4; n++) {
+                int nextColumn = column + NEIGHBOUR_X[n];
+                int nextRow = row + NEIGHBOUR_Y[n];
+                if (nextColumn < 0 || nextColumn >= columns || nextRow < 0 || nextRow >= rows) {
+                    continue;
+                }
+                int next = nextRow * columns + nextColumn;
+                if (!blocked[next] && distance[next] == UNREACHED) {
+                    distance[next] = distance[cell] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    // points every cell, blocked ones included so enemies pushed into them walk back out, at its closest neighbour
+    private void point() {
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = row * columns + column;
+                int best = distance[cell];
+                int bestNeighbour = -1;
+                for (int n = 0; n < NEIGHBOUR_X.length; n++) {
+                    int nextColumn = column + NEIGHBOUR_X[n];
+                    int nextRow = row + NEIGHBOUR_Y[n];
+                    if (nextColumn < 0 || nextColumn >= columns || nextRow < 0 || nextRow >= rows) {
+                        continue;
+                    }
+                    // a diagonal step must not cut the corner of a blocked cell
+                    if (n >= 4 && (blocked[row * columns + nextColumn] || blocked[nextRow * columns + column])) {
+                        continue;
+                    }
+                    int next = nextRow * columns + nextColumn;
+                    if (distance[next] < best) {
+                        best = distance[next];
+                        bestNeighbour = n;
+                    }
+                }
+                if (bestNeighbour == -1) {
+                    directionX[cell] = 0;
+                    directionY[cell] = 0;
+                } else {
+                    double scale = bestNeighbour >= 4 ? DIAGONAL : 1;
+                    directionX[cell] = NEIGHBOUR_X[bestNeighbour] * scale;
+                    directionY[cell] = NEIGHBOUR_Y[bestNeighbour] * scale;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cell containing a position; positions outside the room belong to the nearest edge cell.
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The cell.
+     */
+    public int cellOf(double x, double y) {
+        int column = Math.min(columns - 1, Math.max(0, (int) Math.floor(x / cellSize)));
+        int row = Math.min(rows - 1, Math.max(0, (int) Math.floor(y / cellSize)));
+        return row * columns + column;
+    }
+
+    /**
+     * Returns the x part of the unit direction to walk in from a cell.
+     * @param cell The cell.
+     * @return The x part, with the y part 0 too in the target's cell and in cells with no way to it.
+     */
+    public double directionX(int cell) {
+        return directionX[cell];
+    }
+
+    /**
+     * Returns the y part of the unit direction to walk in from a cell.
+     * @param cell The cell.
+     * @return The y part, with the x part 0 too in the target's cell and in cells with no way to it.
+     */
+    public double directionY(int cell) {
+        return directionY[cell];
+    }
+
+    /**
+     * Returns the number of cells in the field.
+     * @return The cell count.
+     */
+    public int size() {
+        return columns * rows;
+    }
+}
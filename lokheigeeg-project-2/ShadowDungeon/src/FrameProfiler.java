@@ -0,0 +1,398 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Nanosecond timers for the phases of a frame, feeding one {@link LatencyHistogram} per phase, with the number of
+ * entities alongside, and counters of the bytes each phase allocates on the heap, read from the JVM's per-thread
+ * allocation counter. The timings show as an overlay toggled with F3 and are appended to a file at a fixed
+ * interval, each dump covering the time since the previous one.
+ * <p>
+ * The phases that hold others, frames, ticks and drawing, are timed between {@link #begin} and {@link #end}.
+ * The phases within them run one after another: callers time one by passing the time returned by {@link #start()}
+ * or by the previous {@link #lap} to {@link #lap}. A phase may be lapped several times per tick; its times are
+ * summed and recorded once per tick or frame. While disabled, every call only reads a flag, so the timers can stay
+ * in the game.
+ * <p>
+ * A tick that allocates more than the configured budget counts as over budget, unless it changed or restarted the
+ * game's rooms, which builds objects by design. Code running for the first time still allocates a few bytes as the
+ * JVM resolves what it refers to, so a handful of over-budget ticks are tolerated; HeadlessRunner fails when there
+ * are more, as an allocation left in the game's steady state shows up in nearly every tick.
+ */
+public class FrameProfiler {
+    /**
+     * A part of the frame that is timed.
+     */
+    public enum Phase {
+        /** The whole frame, from reading input to drawing. */
+        FRAME,
+        /** One simulation tick of the current room. */
+        TICK,
+        /** Drawing the current room, with the HUD. */
+        RENDER,
+        /** The doors of a battle room. */
+        DOORS,
+        /** The enemies moving, touching the player and shooting. */
+        ENEMIES,
+        /** The fireballs moving and hitting the player. */
+        FIREBALLS,
+        /** The player's bullets moving and hitting enemies. */
+        PLAYER_BULLETS,
+        /** The player's bullets breaking the basket and table. */
+        DESTRUCTIBLES,
+        /** The player colliding with walls, the table and the basket. */
+        WALLS,
+        /** The player wading through rivers. */
+        RIVERS,
+        /** The player picking up keys and opening treasure boxes. */
+        TREASURE,
+        /** The player moving and shooting. */
+        PLAYER,
+        /** Drawing the player's stats. */
+        HUD,
+        /** Sorting the sprites drawn in a frame by layer and texture and submitting them. */
+        SPRITES
+    }
+
+    /**
+     * A number of entities reported alongside the timings.
+     */
+    public enum Count {
+        /** Enemies in the current battle room. */
+        ENEMIES,
+        /** Live fireballs in the current battle room. */
+        FIREBALLS,
+        /** Live player bullets. */
+        BULLETS,
+        /** Keys and treasure boxes in the current battle room. */
+        PICKUPS,
+        /** Rooms loaded. */
+        LOADED_ROOMS,
+        /** Sprites submitted by the last flush of the sprite batch. */
+        SPRITES,
+        /** Runs of sprites sharing a layer and texture in the last flush, each needing one texture bind. */
+        TEXTURE_RUNS,
+        /** Sprites skipped in the last frame for lying outside the view. */
+        CULLED
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final Count[] COUNTS = Count.values();
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double OVERLAY_X = 10;
+    private static final double OVERLAY_LINE_SPACING = 1.2;
+
+    private static final LatencyHistogram[] HISTOGRAMS = new LatencyHistogram[PHASES.length];
+    private static final long[] PENDING = new long[PHASES.length];  // time spent in each phase since the last flush
+    private static final long[] PENDING_BYTES = new long[PHASES.length];
+    private static final boolean[] TOUCHED = new boolean[PHASES.length];
+    private static final long[] BEGIN_TIMES = new long[PHASES.length];
+    private static final long[] BEGIN_BYTES = new long[PHASES.length];
+    private static final long[] TOTAL_BYTES = new long[PHASES.length];
+    private static final long[] MAX_BYTES = new long[PHASES.length];
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final int[] COUNT_VALUES = new int[COUNTS.length];
+    private static final int[] MAX_COUNTS = new int[COUNTS.length];
+    private static boolean enabled = false;
+    private static String dumpFile = "";
+    private static long dumpIntervalNanos;
+    private static long lastDump;           // when the report was last refreshed (and dumped)
+    private static String[] overlayLines;   // the report as of the last refresh, or null to refresh next frame
+    private static int fontSize;
+    private static long tickAllocationBudget;
+    private static long overBudgetTicksAllowed;
+    private static long lastBytes;      // allocated bytes when the last phase within a frame started
+    private static boolean steady;      // whether the current tick left the rooms as they were
+    private static long overBudgetTicks;
+    private static long worstTickBytes;
+
+    static {
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Applies the profiler settings of the game configuration.
+     * @param config The game configuration.
+     */
+    public static void configure(GameConfig config) {
+        dumpFile = config.profilerDumpFile;
+        dumpIntervalNanos = (long) (config.profilerDumpInterval * NANOS_PER_SECOND);
+        fontSize = config.profilerFontSize;
+        tickAllocationBudget = config.profilerTickAllocationBudget;
+        overBudgetTicksAllowed = config.profilerOverBudgetTicksAllowed;
+        setEnabled(config.profilerEnabled);
+    }
+
+    /**
+     * Turns the timers on or off; turning them on starts with empty histograms.
+     * @param on True to time the phases of every frame.
+     */
+    public static void setEnabled(boolean on) {
+        if (on && !enabled) {
+            reset();
+            overBudgetTicks = 0;
+            worstTickBytes = 0;
+            lastDump = System.nanoTime();
+            overlayLines = null;
+        }
+        enabled = on;
+    }
+
+    /**
+     * Turns the timers, and with them the overlay, on if they are off and off if they are on.
+     */
+    public static void toggle() {
+        setEnabled(!enabled);
+    }
+
+    /**
+     * Checks whether the timers are on.
+     * @return True if phases are being timed.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing.
+     * @return The current time to pass to {@link #lap}, or 0 while disabled.
+     */
+    public static long start() {
+        if (!enabled) {
+            return 0;
+        }
+        lastBytes = THREADS.getCurrentThreadAllocatedBytes();
+        return System.nanoTime();
+    }
+
+    /**
+     * Adds the time since the given start to a phase.
+     * @param phase The phase that just ended.
+     * @param since The time the phase started, from {@link #start()} or the previous lap.
+     * @return The current time, where the next phase starts, or 0 while disabled.
+     */
+    public static long lap(Phase phase, long since) {
+        if (!enabled) {
+            return 0;
+        }
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        PENDING_BYTES[phase.ordinal()] += bytes - lastBytes;
+        lastBytes = bytes;
+        long now = System.nanoTime();
+        PENDING[phase.ordinal()] += now - since;
+        TOUCHED[phase.ordinal()] = true;
+        return now;
+    }
+
+    /**
+     * Starts a phase that holds others.
+     * @param phase The phase.
+     */
+    public static void begin(Phase phase) {
+        if (!enabled) {
+            return;
+        }
+        if (phase == Phase.TICK) {
+            steady = true;
+        }
+        BEGIN_BYTES[phase.ordinal()] = THREADS.getCurrentThreadAllocatedBytes();
+        BEGIN_TIMES[phase.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Ends a phase started with {@link #begin}, adding its time and allocations.
+     * @param phase The phase.
+     */
+    public static void end(Phase phase) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        PENDING[phase.ordinal()] += now - BEGIN_TIMES[phase.ordinal()];
+        PENDING_BYTES[phase.ordinal()] += THREADS.getCurrentThreadAllocatedBytes() - BEGIN_BYTES[phase.ordinal()];
+        TOUCHED[phase.ordinal()] = true;
+    }
+
+    /**
+     * Exempts the current tick from the allocation budget, as it changed or restarted the game's rooms.
+     */
+    public static void markUnsteady() {
+        steady = false;
+    }
+
+    /**
+     * Reports a number of entities.
+     * @param count What was counted.
+     * @param value The number.
+     */
+    public static void count(Count count, int value) {
+        if (!enabled) {
+            return;
+        }
+        COUNT_VALUES[count.ordinal()] = value;
+        MAX_COUNTS[count.ordinal()] = Math.max(MAX_COUNTS[count.ordinal()], value);
+    }
+
+    /**
+     * Ends the current tick, recording it and the phases timed during it, and checks its allocations against the
+     * budget.
+     */
+    public static void endTick() {
+        if (!enabled) {
+            return;
+        }
+        end(Phase.TICK);
+        long tickBytes = PENDING_BYTES[Phase.TICK.ordinal()];
+        if (steady && tickAllocationBudget >= 0 && tickBytes > tickAllocationBudget) {
+            overBudgetTicks++;
+            worstTickBytes = Math.max(worstTickBytes, tickBytes);
+        }
+        flush();
+    }
+
+    /**
+     * Ends the current frame, recording it and the phases timed during its drawing. Once the dump interval has
+     * passed, refreshes the report the overlay shows and dumps the histograms to the file. The report is only built
+     * then, after the frame has been measured, so drawing the overlay does not allocate in the frames it times.
+     */
+    public static void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        end(Phase.FRAME);
+        flush();
+        long now = System.nanoTime();
+        boolean intervalPassed = now - lastDump >= dumpIntervalNanos;
+        if (intervalPassed || overlayLines == null) {
+            String report = report();
+            overlayLines = report.split(System.lineSeparator());
+            if (intervalPassed && !dumpFile.isEmpty()) {
+                dump(report);
+                reset();
+            }
+        }
+        if (intervalPassed) {
+            lastDump = now;
+        }
+    }
+
+    private static void flush() {
+        for (int i = 0; i < PHASES.length; i++) {
+            if (TOUCHED[i]) {
+                HISTOGRAMS[i].record(PENDING[i]);
+                TOTAL_BYTES[i] += PENDING_BYTES[i];
+                MAX_BYTES[i] = Math.max(MAX_BYTES[i], PENDING_BYTES[i]);
+                PENDING[i] = 0;
+                PENDING_BYTES[i] = 0;
+                TOUCHED[i] = false;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of ticks that allocated more than the budget since the timers were turned on, not
+     * counting ticks that changed or restarted the rooms.
+     * @return The number of ticks over budget.
+     */
+    public static long getOverBudgetTicks() {
+        return overBudgetTicks;
+    }
+
+    /**
+     * Checks whether more ticks went over the allocation budget than allowed.
+     * @return True if the game allocates in its steady state, otherwise false.
+     */
+    public static boolean isOverBudget() {
+        return overBudgetTicks > overBudgetTicksAllowed;
+    }
+
+    /**
+     * Returns the most bytes allocated by a tick that was over budget.
+     * @return The bytes allocated by the worst tick, or 0 if no tick was over budget.
+     */
+    public static long getWorstTickBytes() {
+        return worstTickBytes;
+    }
+
+    // appends a report to the dump file; if that fails, dumping stops but the game goes on
+    private static void dump(String report) {
+        try (PrintWriter out = new PrintWriter(new FileWriter(dumpFile, true))) {
+            out.println(report);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            dumpFile = "";
+        }
+    }
+
+    private static void reset() {
+        for (int i = 0; i < PHASES.length; i++) {
+            HISTOGRAMS[i].reset();
+            PENDING[i] = 0;
+            PENDING_BYTES[i] = 0;
+            TOUCHED[i] = false;
+            TOTAL_BYTES[i] = 0;
+            MAX_BYTES[i] = 0;
+        }
+        for (int i = 0; i < COUNTS.length; i++) {
+            MAX_COUNTS[i] = COUNT_VALUES[i];
+        }
+    }
+
+    /**
+     * Returns the histogram of a phase.
+     * @param phase The phase.
+     * @return The histogram of its times in nanoseconds.
+     */
+    public static LatencyHistogram getHistogram(Phase phase) {
+        return HISTOGRAMS[phase.ordinal()];
+    }
+
+    /**
+     * Describes the histograms, allocations and entity counts, one line per phase that was timed and one for the
+     * counts.
+     * @return The report, with times in microseconds and allocations in bytes per tick or frame.
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder(String.format("%-15s %8s %9s %9s %9s %9s %9s %10s %10s%n",
+                "phase", "count", "mean us", "p50", "p99", "p99.9", "max", "mean B", "max B"));
+        for (Phase phase : PHASES) {
+            LatencyHistogram histogram = HISTOGRAMS[phase.ordinal()];
+            if (histogram.getCount() > 0) {
+                report.append(String.format("%-15s %8d %9.1f %9.1f %9.1f %9.1f %9.1f %10.1f %10d%n", phase,
+                        histogram.getCount(), histogram.getMean() / NANOS_PER_MICRO,
+                        histogram.percentile(0.5) / NANOS_PER_MICRO, histogram.percentile(0.99) / NANOS_PER_MICRO,
+                        histogram.percentile(0.999) / NANOS_PER_MICRO, histogram.getMax() / NANOS_PER_MICRO,
+                        (double) TOTAL_BYTES[phase.ordinal()] / histogram.getCount(), MAX_BYTES[phase.ordinal()]));
+            }
+        }
+        if (overBudgetTicks > 0) {
+            report.append(String.format("%d ticks over the allocation budget of %d bytes (%d allowed), worst %d bytes%n",
+                    overBudgetTicks, tickAllocationBudget, overBudgetTicksAllowed, worstTickBytes));
+        }
+        for (Count count : COUNTS) {
+            report.append(String.format("%s %d (max %d)  ", count, COUNT_VALUES[count.ordinal()],
+                    MAX_COUNTS[count.ordinal()]));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Draws the report as of the last refresh in the top left corner of the window while the timers are on, as part
+     * of the frame being rendered.
+     */
+    public static void drawOverlay() {
+        if (!enabled || overlayLines == null) {
+            return;
+        }
+        double y = fontSize * OVERLAY_LINE_SPACING;
+        for (String line : overlayLines) {
+            UserInterface.drawData(line, fontSize, OVERLAY_X, y);
+            y += fontSize * OVERLAY_LINE_SPACING;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Fixed-timestep clock that decides how many simulation ticks to run for each rendered frame.
+ * All per-frame values in the properties are tuned for {@link #BASE_TICK_RATE} ticks per second and are
+ * scaled to the configured tick rate, so gameplay runs at the same speed regardless of the display or tick rate.
+ */
+public class GameClock {
+    /** Tick rate, in ticks per second, that the per-frame values in the properties are tuned for. */
+    public static final double BASE_TICK_RATE = 60;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static double tickRate = BASE_TICK_RATE;
+    private static double alpha = 1;
+
+    private final long tickNanos;
+    private final int maxTicksPerFrame;
+    private long accumulator = 0;
+    private long lastTime = 0;
+    private boolean started = false;    // System.nanoTime() can be negative, so no time value can mean "not yet"
+
+    /**
+     * Creates a clock running the simulation at the given rate.
+     * @param tickRate The number of simulation ticks per second.
+     * @param maxTicksPerFrame The most ticks to catch up on in one frame after a slow frame.
+     */
+    public GameClock(double tickRate, int maxTicksPerFrame) {
+        this.tickNanos = Math.round(NANOS_PER_SECOND / tickRate);
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+
+    /**
+     * Accumulates the time passed since the last frame and returns how many ticks should run now.
+     * Time beyond the catch-up limit is dropped, so the game slows down instead of spiralling after a long stall.
+     * @param now The current time in nanoseconds, from {@link System#nanoTime()}.
+     * @return The number of simulation ticks to run this frame.
+     */
+    public int advance(long now) {
+        if (!started) {
+            started = true;
+            lastTime = now;
+            accumulator = tickNanos; // always run one tick on the first frame
+        }
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        int ticks = (int) Math.min(accumulator / tickNanos, maxTicksPerFrame);
+        accumulator -= ticks * tickNanos;
+        if (accumulator >= tickNanos) {
+            accumulator %= tickNanos;
+        }
+
+        alpha = (double) accumulator / tickNanos;
+        return ticks;
+    }
+
+    /**
+     * Sets the simulation tick rate used to scale the per-frame values in the properties.
+     * @param rate The number of simulation ticks per second.
+     */
+    public static void setTickRate(double rate) {
+        tickRate = rate;
+    }
+
+    /**
+     * Returns the simulation tick rate.
+     * @return The number of simulation ticks per second.
+     */
+    public static double getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Scales an amount applied every frame at the base tick rate (a speed or damage) to one tick.
+     * @param perBaseFrame The amount per frame at {@link #BASE_TICK_RATE}.
+     * @return The amount per tick at the current tick rate.
+     */
+    public static double perTick(double perBaseFrame) {
+        return perBaseFrame * BASE_TICK_RATE / tickRate;
+    }
+
+    /**
+     * Scales a duration measured in frames at the base tick rate (a cooldown) to ticks.
+     * @param baseFrames The number of frames at {@link #BASE_TICK_RATE}.
+     * @return The number of ticks at the current tick rate.
+     */
+    public static double ticks(double baseFrames) {
+        return baseFrames * tickRate / BASE_TICK_RATE;
+    }
+
+    /**
+     * Interpolates between the value at the previous tick and the current tick for drawing.
+     * @param previous The value at the previous tick.
+     * @param current The value at the current tick.
+     * @return The value at the point in time being rendered.
+     */
+    public static double lerp(double previous, double current) {
+        return previous + (current - previous) * alpha;
+    }
+
+    /**
+     * Sets how far the rendered frame is between the previous and the current tick.
+     * @param value The interpolation factor, from 0 (previous tick) to 1 (current tick).
+     */
+    public static void setAlpha(double value) {
+        alpha = value;
+    }
+}
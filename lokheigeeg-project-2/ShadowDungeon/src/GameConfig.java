@@ -0,0 +1,326 @@
+import bagel.util.Point;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The game and message properties, parsed once at startup into typed, read-only fields.
+ */
+public class GameConfig {
+    /** Property naming a compiled level file to load the room layouts from, instead of from the properties. */
+    public static final String LEVEL_FILE_KEY = "levels.file";
+    /** Start of the properties defining bullet patterns, followed by the pattern's name. */
+    public static final String PATTERN_PREFIX = "pattern.";
+
+    /** Width of the window in pixels. */
+    public final int windowWidth;
+    /** Height of the window in pixels. */
+    public final int windowHeight;
+    /** Simulation ticks per second. */
+    public final double tickRate;
+    /** Most ticks to catch up on after a slow frame. */
+    public final int maxTicksPerFrame;
+
+    /** Path to the font file. */
+    public final String font;
+    /** Font size of the title and end messages. */
+    public final int titleFontSize;
+    /** Y coordinate of the title and end messages. */
+    public final double titleY;
+    /** Font size of the prompts on the title screen. */
+    public final int promptFontSize;
+    /** Y coordinate of the move prompt. */
+    public final double moveMessageY;
+    /** Y coordinate of the character select prompt. */
+    public final double selectMessageY;
+    /** Font size of the player statistics and character descriptions. */
+    public final int playerStatsFontSize;
+    /** Position of the health display. */
+    public final Point healthStat;
+    /** Position of the coin display. */
+    public final Point coinStat;
+    /** Position of the key display. */
+    public final Point keyStat;
+    /** Position of the weapon display. */
+    public final Point weaponStat;
+    /** Position of the robot description. */
+    public final Point robotMessage;
+    /** Position of the marine description. */
+    public final Point marineMessage;
+
+    /** Position of the robot selection area. */
+    public final Point robotArea;
+    /** Position of the marine selection area. */
+    public final Point marineArea;
+    /** Where the player starts a new game. */
+    public final Point playerStart;
+
+    /** Starting health of the player. */
+    public final double initialHealth;
+    /** Player movement speed in pixels per base tick. */
+    public final double movingSpeed;
+    /** Extra coins the robot earns per kill. */
+    public final double robotExtraCoin;
+    /** Coins in a basket. */
+    public final double basketCoin;
+    /** Starting health of a BulletKin. */
+    public final double bulletKinHealth;
+    /** Coins awarded for killing a BulletKin. */
+    public final double bulletKinCoin;
+    /** Base ticks between BulletKin shots. */
+    public final double bulletKinShootFrequency;
+    /** Name of the bullet pattern a BulletKin shoots. */
+    public final String bulletKinPattern;
+    /** Starting health of an AshenBulletKin. */
+    public final double ashenBulletKinHealth;
+    /** Coins awarded for killing an AshenBulletKin. */
+    public final double ashenBulletKinCoin;
+    /** Base ticks between AshenBulletKin shots. */
+    public final double ashenBulletKinShootFrequency;
+    /** Name of the bullet pattern an AshenBulletKin shoots. */
+    public final String ashenBulletKinPattern;
+    /** Starting health of a KeyBulletKin. */
+    public final double keyBulletKinHealth;
+    /** KeyBulletKin movement speed in pixels per base tick. */
+    public final double keyBulletKinSpeed;
+    /** Image file of a ChaserKin. */
+    public final String chaserKinImage;
+    /** Starting health of a ChaserKin. */
+    public final double chaserKinHealth;
+    /** Coins awarded for killing a ChaserKin. */
+    public final double chaserKinCoin;
+    /** ChaserKin movement speed in pixels per base tick. */
+    public final double chaserKinSpeed;
+    /** Size in pixels of the cells of the flow field chasing enemies follow. */
+    public final double flowFieldCellSize;
+    /** Damage dealt by a fireball. */
+    public final double fireballDamage;
+    /** Damage dealt by a river per base tick. */
+    public final double riverDamagePerFrame;
+    /** Damage dealt by a standard weapon bullet. */
+    public final double weaponStandardDamage;
+    /** Bullet speed in pixels per base tick. */
+    public final double bulletSpeed;
+    /** Base ticks between player shots. */
+    public final double bulletFreq;
+    /** Most live player bullets at once. */
+    public final int bulletPoolSize;
+    /** Most live fireballs per room at once. */
+    public final int fireballPoolSize;
+    /** What happens to a new projectile when its pool is full. */
+    public final ProjectileStore.Eviction projectilePoolEviction;
+    /** How many doors away from the player rooms are kept loaded. */
+    public final int roomLoadRadius;
+    /** How close the player gets to a door before the room behind it starts being built. */
+    public final double doorPrefetchDistance;
+    /** Whether the frame timers start out on. */
+    public final boolean profilerEnabled;
+    /** File the frame timings are appended to, or empty to keep them on screen only. */
+    public final String profilerDumpFile;
+    /** Seconds between dumps of the frame timings. */
+    public final double profilerDumpInterval;
+    /** Font size of the frame timing overlay. */
+    public final int profilerFontSize;
+    /** Most bytes a tick that stays in its room may allocate while the timers are on, or -1 for no limit. */
+    public final long profilerTickAllocationBudget;
+    /** How many ticks may go over the allocation budget, allocating while code runs for the first time. */
+    public final long profilerOverBudgetTicksAllowed;
+
+    /** Title screen heading. */
+    public final String title;
+    /** Title screen movement prompt. */
+    public final String moveMessage;
+    /** Title screen character select prompt. */
+    public final String selectMessage;
+    /** Message shown after losing. */
+    public final String gameEndLost;
+    /** Message shown after winning. */
+    public final String gameEndWon;
+    /** Label of the health display. */
+    public final String healthDisplay;
+    /** Label of the coin display. */
+    public final String coinDisplay;
+    /** Label of the weapon display. */
+    public final String weaponDisplay;
+    /** Label of the key display. */
+    public final String keyDisplay;
+    /** Description of the robot character. */
+    public final String robotDescription;
+    /** Description of the marine character. */
+    public final String marineDescription;
+
+    private final Map<String, RoomConfig> rooms;
+    private final Map<String, BulletPattern> patterns;
+
+    private GameConfig(Properties gameProps, Properties messageProps) {
+        windowWidth = Integer.parseInt(gameProps.getProperty("window.width"));
+        windowHeight = Integer.parseInt(gameProps.getProperty("window.height"));
+        tickRate = Double.parseDouble(gameProps.getProperty("simulation.tickRate"));
+        maxTicksPerFrame = Integer.parseInt(gameProps.getProperty("simulation.maxTicksPerFrame"));
+
+        font = gameProps.getProperty("font");
+        titleFontSize = Integer.parseInt(gameProps.getProperty("title.fontSize"));
+        titleY = Double.parseDouble(gameProps.getProperty("title.y"));
+        promptFontSize = Integer.parseInt(gameProps.getProperty("prompt.fontSize"));
+        moveMessageY = Double.parseDouble(gameProps.getProperty("moveMessage.y"));
+        selectMessageY = Double.parseDouble(gameProps.getProperty("selectMessage.y"));
+        playerStatsFontSize = Integer.parseInt(gameProps.getProperty("playerStats.fontSize"));
+        healthStat = IOUtils.parseCoords(gameProps.getProperty("healthStat"));
+        coinStat = IOUtils.parseCoords(gameProps.getProperty("coinStat"));
+        keyStat = IOUtils.parseCoords(gameProps.getProperty("keyStat"));
+        weaponStat = IOUtils.parseCoords(gameProps.getProperty("weaponStat"));
+        robotMessage = IOUtils.parseCoords(gameProps.getProperty("robotMessage"));
+        marineMessage = IOUtils.parseCoords(gameProps.getProperty("marineMessage"));
+
+        robotArea = IOUtils.parseCoords(gameProps.getProperty("Robot"));
+        marineArea = IOUtils.parseCoords(gameProps.getProperty("Marine"));
+        playerStart = IOUtils.parseCoords(gameProps.getProperty("player.start"));
+
+        initialHealth = Double.parseDouble(gameProps.getProperty("initialHealth"));
+        movingSpeed = Double.parseDouble(gameProps.getProperty("movingSpeed"));
+        robotExtraCoin = Double.parseDouble(gameProps.getProperty("robotExtraCoin"));
+        basketCoin = Double.parseDouble(gameProps.getProperty("basketCoin"));
+        bulletKinHealth = Double.parseDouble(gameProps.getProperty("bulletKinHealth"));
+        bulletKinCoin = Double.parseDouble(gameProps.getProperty("bulletKinCoin"));
+        bulletKinShootFrequency = Double.parseDouble(gameProps.getProperty("bulletKinShootFrequency"));
+        bulletKinPattern = gameProps.getProperty("bulletKinPattern");
+        ashenBulletKinHealth = Double.parseDouble(gameProps.getProperty("ashenBulletKinHealth"));
+        ashenBulletKinCoin = Double.parseDouble(gameProps.getProperty("ashenBulletKinCoin"));
+        ashenBulletKinShootFrequency = Double.parseDouble(gameProps.getProperty("ashenBulletKinShootFrequency"));
+        ashenBulletKinPattern = gameProps.getProperty("ashenBulletKinPattern");
+        keyBulletKinHealth = Double.parseDouble(gameProps.getProperty("keyBulletKinHealth"));
+        keyBulletKinSpeed = Double.parseDouble(gameProps.getProperty("keyBulletKinSpeed"));
+        chaserKinImage = gameProps.getProperty("chaserKinImage");
+        chaserKinHealth = Double.parseDouble(gameProps.getProperty("chaserKinHealth"));
+        chaserKinCoin = Double.parseDouble(gameProps.getProperty("chaserKinCoin"));
+        chaserKinSpeed = Double.parseDouble(gameProps.getProperty("chaserKinSpeed"));
+        flowFieldCellSize = Double.parseDouble(gameProps.getProperty("flowField.cellSize"));
+        fireballDamage = Double.parseDouble(gameProps.getProperty("fireballDamage"));
+        riverDamagePerFrame = Double.parseDouble(gameProps.getProperty("riverDamagePerFrame"));
+        weaponStandardDamage = Double.parseDouble(gameProps.getProperty("weaponStandardDamage"));
+        bulletSpeed = Double.parseDouble(gameProps.getProperty("bulletSpeed"));
+        bulletFreq = Double.parseDouble(gameProps.getProperty("bulletFreq"));
+        bulletPoolSize = Integer.parseInt(gameProps.getProperty("bulletPoolSize"));
+        fireballPoolSize = Integer.parseInt(gameProps.getProperty("fireballPoolSize"));
+        projectilePoolEviction = ProjectileStore.Eviction.valueOf(gameProps.getProperty("projectilePoolEviction"));
+        roomLoadRadius = Integer.parseInt(gameProps.getProperty("room.loadRadius"));
+        doorPrefetchDistance = Double.parseDouble(gameProps.getProperty("room.doorPrefetchDistance"));
+        profilerEnabled = Boolean.parseBoolean(gameProps.getProperty("profiler.enabled"));
+        profilerDumpFile = gameProps.getProperty("profiler.dumpFile", "");
+        profilerDumpInterval = Double.parseDouble(gameProps.getProperty("profiler.dumpInterval"));
+        profilerFontSize = Integer.parseInt(gameProps.getProperty("profiler.fontSize"));
+        profilerTickAllocationBudget = Long.parseLong(gameProps.getProperty("profiler.tickAllocationBudget"));
+        profilerOverBudgetTicksAllowed = Long.parseLong(gameProps.getProperty("profiler.overBudgetTicksAllowed"));
+
+        title = messageProps.getProperty("title");
+        moveMessage = messageProps.getProperty("moveMessage");
+        selectMessage = messageProps.getProperty("selectMessage");
+        gameEndLost = messageProps.getProperty("gameEnd.lost");
+        gameEndWon = messageProps.getProperty("gameEnd.won");
+        healthDisplay = messageProps.getProperty("healthDisplay");
+        coinDisplay = messageProps.getProperty("coinDisplay");
+        weaponDisplay = messageProps.getProperty("weaponDisplay");
+        keyDisplay = messageProps.getProperty("keyDisplay");
+        robotDescription = messageProps.getProperty("robotDescription");
+        marineDescription = messageProps.getProperty("marineDescription");
+
+        String levelFile = gameProps.getProperty(LEVEL_FILE_KEY, "");
+        this.rooms = levelFile.isEmpty() ? parseRooms(gameProps) : LevelFile.load(levelFile);
+        this.patterns = parsePatterns(gameProps);
+    }
+
+    private static Map<String, BulletPattern> parsePatterns(Properties gameProps) {
+        Map<String, BulletPattern> patterns = new HashMap<>();
+        for (String key : gameProps.stringPropertyNames()) {
+            if (key.startsWith(PATTERN_PREFIX)) {
+                String name = key.substring(PATTERN_PREFIX.length());
+                patterns.put(name, BulletPattern.parse(name, gameProps.getProperty(key)));
+            }
+        }
+        return Collections.unmodifiableMap(patterns);
+    }
+
+    private static Map<String, RoomConfig> parseRooms(Properties gameProps) {
+        Map<String, RoomConfig> rooms = new HashMap<>();
+        for (String key : gameProps.stringPropertyNames()) {
+            int dot = key.lastIndexOf('.');
+            if (dot > 0 && isObjectType(key.substring(0, dot))) {
+                String roomName = key.substring(dot + 1);
+                rooms.computeIfAbsent(roomName, name -> new RoomConfig(name, gameProps));
+            }
+        }
+        return Collections.unmodifiableMap(rooms);
+    }
+
+    /**
+     * Parses the game and message properties.
+     * @param gameProps The game configuration properties.
+     * @param messageProps The message properties.
+     * @return The parsed configuration.
+     */
+    public static GameConfig from(Properties gameProps, Properties messageProps) {
+        return new GameConfig(gameProps, messageProps);
+    }
+
+    /**
+     * Returns the layouts of all rooms that place objects.
+     * @return The room layouts by room name.
+     */
+    public Map<String, RoomConfig> getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Returns the layout of a room.
+     * @param roomName The name of the room.
+     * @return The room layout, or an empty layout if the room places no objects.
+     */
+    public RoomConfig getRoom(String roomName) {
+        RoomConfig room = rooms.get(roomName);
+        return room != null ? room : new RoomConfig(roomName, new Properties());
+    }
+
+    /**
+     * Returns the width of a room, which is the window's unless its layout sets a size.
+     * @param roomName The name of the room.
+     * @return The width in pixels.
+     */
+    public double getRoomWidth(String roomName) {
+        RoomConfig room = rooms.get(roomName);
+        return room != null && room.size != null ? room.size.x : windowWidth;
+    }
+
+    /**
+     * Returns the height of a room, which is the window's unless its layout sets a size.
+     * @param roomName The name of the room.
+     * @return The height in pixels.
+     */
+    public double getRoomHeight(String roomName) {
+        RoomConfig room = rooms.get(roomName);
+        return room != null && room.size != null ? room.size.y : windowHeight;
+    }
+
+    /**
+     * Returns a bullet pattern defined by a pattern.&lt;name&gt; property.
+     * @param name The name of the pattern.
+     * @return The pattern.
+     */
+    public BulletPattern getPattern(String name) {
+        BulletPattern pattern = patterns.get(name);
+        if (pattern == null) {
+            throw new IllegalArgumentException("No bullet pattern named " + name);
+        }
+        return pattern;
+    }
+
+    private static boolean isObjectType(String type) {
+        for (String objectType : RoomConfig.OBJECT_TYPES) {
+            if (objectType.equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
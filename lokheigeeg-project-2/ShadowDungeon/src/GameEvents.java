@@ -0,0 +1,207 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for what the game is doing, so a recording lines GC pauses and JIT activity up with
+ * room changes, restarts, battles and kills. The events are on whenever a recording is, e.g. one started with
+ * -XX:StartFlightRecording, and show under "Shadow Dungeon" in JDK Mission Control.
+ * <p>
+ * Events on rare paths are built where they happen, timed between begin and commit. The ones that can fire in any
+ * tick are built by the methods here, only while a recording is running, so the game allocates nothing for them
+ * otherwise.
+ */
+public final class GameEvents {
+    private static final EventType ENEMY_DEATH = EventType.getEventType(EnemyDeath.class);
+    private static final EventType ROOM_CLEARED = EventType.getEventType(RoomCleared.class);
+    private static final EventType PROJECTILE_BURST = EventType.getEventType(ProjectileBurst.class);
+
+    private GameEvents() {
+    }
+
+    /**
+     * Registers the events with the flight recorder up front, so the first event of a kind does not pay for its
+     * registration in the middle of a tick.
+     */
+    public static void register() {
+        // the other event types are registered as this class initializes
+        EventType.getEventType(RoomChange.class);
+        EventType.getEventType(Restart.class);
+        EventType.getEventType(BattleStart.class);
+    }
+
+    /**
+     * The player moving to another room, timed from leaving the old room to standing in the new one.
+     */
+    @Name("shadowdungeon.RoomChange")
+    @Label("Room Change")
+    @Category({"Shadow Dungeon", "Rooms"})
+    public static class RoomChange extends Event {
+        @Label("From")
+        String from;
+        @Label("To")
+        String to;
+        @Label("Game Over")
+        @Description("Whether the player died and was sent to the end room")
+        boolean gameOver;
+        @Label("Loaded Rooms")
+        int loadedRooms;
+    }
+
+    /**
+     * The game starting over, timed while every room is reset.
+     */
+    @Name("shadowdungeon.Restart")
+    @Label("Restart")
+    @Category({"Shadow Dungeon", "Rooms"})
+    public static class Restart extends Event {
+        @Label("From")
+        String from;
+        @Label("Loaded Rooms")
+        int loadedRooms;
+    }
+
+    /**
+     * A battle room locking its doors and waking its enemies.
+     */
+    @Name("shadowdungeon.BattleStart")
+    @Label("Battle Start")
+    @Category({"Shadow Dungeon", "Battle"})
+    public static class BattleStart extends Event {
+        @Label("Room")
+        String room;
+        @Label("Enemies")
+        int enemies;
+        @Label("Fireballs")
+        int fireballs;
+    }
+
+    /**
+     * The last enemy of a battle room dying.
+     */
+    @Name("shadowdungeon.RoomCleared")
+    @Label("Room Cleared")
+    @Category({"Shadow Dungeon", "Battle"})
+    public static class RoomCleared extends Event {
+        @Label("Room")
+        String room;
+        @Label("Ticks")
+        @Description("Ticks the player spent in the room before clearing it")
+        int ticks;
+        @Label("Pickups")
+        int pickups;
+        @Label("Player Health")
+        double playerHealth;
+    }
+
+    /**
+     * An enemy dying, from a bullet or from running into the player.
+     */
+    @Name("shadowdungeon.EnemyDeath")
+    @Label("Enemy Death")
+    @Category({"Shadow Dungeon", "Battle"})
+    public static class EnemyDeath extends Event {
+        @Label("Enemy")
+        @Description("The sprite file of the enemy")
+        String enemy;
+        @Label("X")
+        double x;
+        @Label("Y")
+        double y;
+        @Label("Dropped Key")
+        boolean droppedKey;
+        @Label("Enemies Left")
+        int enemiesLeft;
+    }
+
+    /**
+     * The enemies of a room firing in a tick.
+     */
+    @Name("shadowdungeon.ProjectileBurst")
+    @Label("Projectile Burst")
+    @Category({"Shadow Dungeon", "Battle"})
+    public static class ProjectileBurst extends Event {
+        @Label("Room")
+        String room;
+        @Label("Fired")
+        int fired;
+        @Label("Live Fireballs")
+        int live;
+        @Label("Shooting Time")
+        @Description("Time the shooting system took this tick")
+        @Timespan(Timespan.NANOSECONDS)
+        long shootingTime;
+    }
+
+    /**
+     * Records an enemy's death if a recording is running.
+     * @param enemy The sprite of the enemy.
+     * @param x The x-coordinate the enemy died at.
+     * @param y The y-coordinate the enemy died at.
+     * @param droppedKey Whether the enemy dropped a key.
+     * @param enemiesLeft How many enemies are still alive, counting ones dying in the same tick.
+     */
+    public static void enemyDied(Sprite enemy, double x, double y, boolean droppedKey, int enemiesLeft) {
+        if (!ENEMY_DEATH.isEnabled()) {
+            return;
+        }
+        EnemyDeath event = new EnemyDeath();
+        event.enemy = enemy.getFile();
+        event.x = x;
+        event.y = y;
+        event.droppedKey = droppedKey;
+        event.enemiesLeft = enemiesLeft;
+        event.commit();
+    }
+
+    /**
+     * Records a battle room being cleared if a recording is running.
+     * @param room The name of the room.
+     * @param ticks Ticks the player spent in the room.
+     * @param pickups The keys and treasure boxes left in the room.
+     * @param playerHealth The player's health.
+     */
+    public static void roomCleared(String room, int ticks, int pickups, double playerHealth) {
+        if (!ROOM_CLEARED.isEnabled()) {
+            return;
+        }
+        RoomCleared event = new RoomCleared();
+        event.room = room;
+        event.ticks = ticks;
+        event.pickups = pickups;
+        event.playerHealth = playerHealth;
+        event.commit();
+    }
+
+    /**
+     * Checks whether a recording is taking projectile burst events, so callers only time the shooting system then.
+     * @return True if {@link #projectileBurst} records events, otherwise false.
+     */
+    public static boolean isProjectileBurstEnabled() {
+        return PROJECTILE_BURST.isEnabled();
+    }
+
+    /**
+     * Records the enemies of a room firing in a tick if a recording is running and anything was fired. The event is
+     * not timed with begin and commit, as that would build one every tick.
+     * @param room The name of the room.
+     * @param fired The number of fireballs fired.
+     * @param live The number of fireballs in the room afterwards.
+     * @param shootingTime The nanoseconds the shooting system took.
+     */
+    public static void projectileBurst(String room, int fired, int live, long shootingTime) {
+        if (fired == 0 || !PROJECTILE_BURST.isEnabled()) {
+            return;
+        }
+        ProjectileBurst event = new ProjectileBurst();
+        event.room = room;
+        event.fired = fired;
+        event.live = live;
+        event.shootingTime = shootingTime;
+        event.commit();
+    }
+}
@@ -0,0 +1,48 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+import bagel.util.Point;
+
+/**
+ * The keyboard and mouse state read by the game logic each frame.
+ * Implemented by the bagel window input and by simulated input for headless runs.
+ */
+public interface GameInput {
+    /**
+     * Checks whether a key is currently held down.
+     * @param key The key to check.
+     * @return True if the key is down, otherwise false.
+     */
+    boolean isDown(Keys key);
+
+    /**
+     * Checks whether a key was pressed this frame.
+     * @param key The key to check.
+     * @return True if the key was pressed this frame, otherwise false.
+     */
+    boolean wasPressed(Keys key);
+
+    /**
+     * Checks whether a mouse button is currently held down.
+     * @param button The mouse button to check.
+     * @return True if the button is down, otherwise false.
+     */
+    boolean isDown(MouseButtons button);
+
+    /**
+     * Returns the x-coordinate of the mouse cursor.
+     * @return The mouse x-coordinate.
+     */
+    double getMouseX();
+
+    /**
+     * Returns the y-coordinate of the mouse cursor.
+     * @return The mouse y-coordinate.
+     */
+    double getMouseY();
+
+    /**
+     * Returns the position of the mouse cursor.
+     * @return The mouse position.
+     */
+    Point getMousePosition();
+}
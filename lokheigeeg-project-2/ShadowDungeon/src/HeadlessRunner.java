@@ -0,0 +1,74 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Runs the game logic without a window or GPU, driven by a simple scripted player, and reports the tick rate.
+ */
+public class HeadlessRunner {
+    private static final Keys[] MOVE_KEYS = {Keys.W, Keys.A, Keys.S, Keys.D};
+    private static final int DEFAULT_TICKS = 100000;
+    private static final long SEED = 42;
+
+    /**
+     * Runs the simulation as fast as possible for the given number of ticks.
+     * @param args Optionally the number of ticks to run, then the path of an input log to record them into.
+     */
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TICKS;
+
+        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+        Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
+        ShadowDungeon.init(gameProps, messageProps);
+
+        SimulatedInput input = new SimulatedInput();
+        Random random = new Random(SEED);
+        InputRecorder recorder = args.length > 1 ? new InputRecorder(args[1]) : null;
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            playScripted(input, random, i);
+            ShadowDungeon.tick(input);
+            if (recorder != null) {
+                recorder.record(input, ShadowDungeon.checksum());
+            }
+            input.nextFrame();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (recorder != null) {
+            recorder.close();
+        }
+
+        System.out.printf("%d ticks in %.3f s (%.0f ticks/s), ended in room %s%n",
+                ticks, seconds, ticks / seconds, ShadowDungeon.getCurrRoomName());
+        System.out.println(Assets.report());
+        if (FrameProfiler.isEnabled()) {
+            System.out.print(FrameProfiler.report());
+            System.out.println();
+            if (FrameProfiler.isOverBudget()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    // picks a character, then wanders around while shooting at random spots
+    private static void playScripted(SimulatedInput input, Random random, int tick) {
+        if (tick == 1) {
+            input.press(random.nextBoolean() ? Keys.R : Keys.M);
+        } else if (tick == 2) {
+            input.release(Keys.R);
+            input.release(Keys.M);
+        }
+
+        if (tick % 30 == 0) {
+            for (Keys key : MOVE_KEYS) {
+                input.release(key);
+            }
+            input.press(MOVE_KEYS[random.nextInt(MOVE_KEYS.length)]);
+            input.setMouse(random.nextDouble() * ShadowDungeon.screenWidth,
+                    random.nextDouble() * ShadowDungeon.screenHeight);
+        }
+        input.setButton(MouseButtons.LEFT, tick % 90 < 60);
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.Arrays;
+
+/**
+ * Health components of the enemies, with what the player gets when one is killed.
+ */
+public class HealthStore extends ComponentStore {
+    /** The remaining health of each entity; it is dead once this reaches 0. */
+    public double[] health = new double[0];
+    /** The base coins the player earns for each kill. */
+    public double[] coinValue = new double[0];
+    /** Whether killing each entity pays out coins and perk bonuses. */
+    public boolean[] rewardsKill = new boolean[0];
+    /** Whether each entity leaves a key behind when it dies. */
+    public boolean[] dropsKey = new boolean[0];
+
+    /**
+     * Creates an empty store.
+     */
+    public HealthStore() {
+        grow(capacity());
+    }
+
+    /**
+     * Gives an entity health and a reward as described by its archetype.
+     * @param entity The entity.
+     * @param archetype The archetype the entity was spawned from.
+     * @return The slot of the new component.
+     */
+    public int add(int entity, Archetype archetype) {
+        int slot = add(entity);
+        health[slot] = archetype.health;
+        coinValue[slot] = archetype.coinValue;
+        rewardsKill[slot] = archetype.rewardsKill;
+        dropsKey[slot] = archetype.dropsKey;
+        return slot;
+    }
+
+    /**
+     * Checks whether an entity is dead.
+     * @param slot The slot of the entity's health.
+     * @return True if its health has run out, otherwise false.
+     */
+    public boolean isDead(int slot) {
+        return health[slot] <= 0;
+    }
+
+    /**
+     * Replaces the health components in this store with copies of another store's.
+     * @param other The store to copy.
+     */
+    public void copyFrom(HealthStore other) {
+        copyEntitiesFrom(other);
+        System.arraycopy(other.health, 0, health, 0, size);
+        System.arraycopy(other.coinValue, 0, coinValue, 0, size);
+        System.arraycopy(other.rewardsKill, 0, rewardsKill, 0, size);
+        System.arraycopy(other.dropsKey, 0, dropsKey, 0, size);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        health[to] = health[from];
+        coinValue[to] = coinValue[from];
+        rewardsKill[to] = rewardsKill[from];
+        dropsKey[to] = dropsKey[from];
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        health = Arrays.copyOf(health, capacity);
+        coinValue = Arrays.copyOf(coinValue, capacity);
+        rewardsKill = Arrays.copyOf(rewardsKill, capacity);
+        dropsKey = Arrays.copyOf(dropsKey, capacity);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * A line of HUD text that keeps its formatted string and measured width until the value it shows changes.
+ */
+public class HudText {
+    private final String fontFile;
+    private final int fontSize;
+    private final String label;
+    private final String format;
+    private String text;
+    private double value;
+    private double width = -1;
+
+    /**
+     * Creates a line of text that never changes.
+     * @param text The text to display.
+     * @param fontFile The path to the font file.
+     * @param fontSize The font size.
+     */
+    public HudText(String text, String fontFile, int fontSize) {
+        this(text, null, fontFile, fontSize);
+        this.text = text;
+    }
+
+    /**
+     * Creates a line of text showing a labelled value.
+     * @param label The label shown before the value.
+     * @param format The format of the line, taking the label and the value (e.g. "%s %.0f").
+     * @param fontFile The path to the font file.
+     * @param fontSize The font size.
+     */
+    public HudText(String label, String format, String fontFile, int fontSize) {
+        this.label = label;
+        this.format = format;
+        this.fontFile = fontFile;
+        this.fontSize = fontSize;
+    }
+
+    /**
+     * Sets the value shown, rebuilding the text only if the value has changed.
+     * @param value The value to show.
+     */
+    public void setValue(double value) {
+        if (text == null || value != this.value) {
+            this.value = value;
+            this.text = String.format(format, label, value);
+            this.width = -1;
+        }
+    }
+
+    /**
+     * Returns the current text.
+     * @return The text to display.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the width of the current text, measuring it only after it has changed.
+     * @return The width in pixels.
+     */
+    public double getWidth() {
+        if (width < 0) {
+            width = ShadowDungeon.getRenderer().getTextWidth(fontFile, fontSize, text);
+        }
+        return width;
+    }
+
+    /**
+     * Draws the text at the given position.
+     * @param x The X position.
+     * @param y The Y position.
+     */
+    public void draw(double x, double y) {
+        SpriteBatch.flush();
+        ShadowDungeon.getRenderer().drawText(fontFile, fontSize, text, x, y);
+    }
+
+    /**
+     * Draws the text centered horizontally at the given Y position.
+     * @param y The Y position.
+     */
+    public void drawCentered(double y) {
+        draw((ShadowDungeon.screenWidth - getWidth()) / 2, y);
+    }
+}
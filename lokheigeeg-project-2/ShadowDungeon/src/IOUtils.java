@@ -1,7 +1,11 @@
 import bagel.util.Point;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.Properties;
 
 /**
@@ -33,4 +37,30 @@ public class IOUtils {
         String[] coordinates = coords.split(",");
         return new Point(Double.parseDouble(coordinates[0]), Double.parseDouble(coordinates[1]));
     }
+
+    /**
+     * Reads the width and height of an image file from its header, without decoding the pixels.
+     * Unlike the other readers here it throws rather than exiting, as sprites are also created on the room builder
+     * thread; the caller on the game thread decides how the failure ends the game.
+     * @param imageFile The path to the image file.
+     * @return An array holding the width and height in pixels.
+     * @throws UncheckedIOException If the file cannot be read or is not a supported image.
+     */
+    public static int[] readImageSize(String imageFile) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new File(imageFile))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image file: " + imageFile);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                return new int[] {reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
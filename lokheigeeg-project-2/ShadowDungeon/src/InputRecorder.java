@@ -0,0 +1,177 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Records the input the game logic reads on every tick into a compact binary log, along with a checksum of the
+ * state each tick leads to, so that {@link Replayer} can run the same game again and check it plays out the same.
+ * <p>
+ * The log starts with a header: the magic number, the format version, the tick rate, the keyframe interval and the
+ * names of the recorded keys. Then comes one record per tick:
+ * <ul>
+ *     <li>a flags byte: the mouse buttons held down in the low bits, then whether a keyframe follows and whether
+ *     the mouse moved,</li>
+ *     <li>the keys held down and the keys pressed this tick, one bit per recorded key,</li>
+ *     <li>the mouse position, only if it moved since the previous tick,</li>
+ *     <li>the state checksum after the tick,</li>
+ *     <li>and every {@link #KEYFRAME_INTERVAL} ticks a keyframe: the room and the player's position, health, coins
+ *     and keys, readable when tracking down where a replay went wrong.</li>
+ * </ul>
+ * A tick in which nothing but the held keys carries on takes 9 bytes.
+ */
+public class InputRecorder {
+    /** Marks the start of an input log. */
+    public static final int MAGIC = 0x53444952;
+    /** Version of the log format. */
+    public static final short VERSION = 1;
+    /** Ticks between keyframes. */
+    public static final int KEYFRAME_INTERVAL = 600;
+    /** The keys the game reads, in the order of their bits in a record. */
+    public static final Keys[] RECORDED_KEYS = {Keys.W, Keys.A, Keys.S, Keys.D, Keys.R, Keys.M, Keys.K, Keys.ENTER,
+            Keys.ESCAPE};
+    /** The mouse buttons recorded, in the order of their bits in the flags byte. */
+    public static final MouseButtons[] RECORDED_BUTTONS = {MouseButtons.LEFT, MouseButtons.RIGHT,
+            MouseButtons.MIDDLE};
+    /** Flag set when a keyframe follows the record. */
+    public static final int KEYFRAME_FLAG = 1 << 6;
+    /** Flag set when the record holds a new mouse position. */
+    public static final int MOUSE_MOVED_FLAG = 1 << 7;
+
+    private DataOutputStream out;
+    private int tick = 0;
+    private double lastMouseX = Double.NaN;
+    private double lastMouseY = Double.NaN;
+
+    /**
+     * Starts a log in the given file, replacing it if it exists.
+     * @param logFile The path of the log file.
+     */
+    public InputRecorder(String logFile) {
+        try {
+            start(new FileOutputStream(logFile));
+        } catch (IOException ex) {
+            stop(ex);
+        }
+    }
+
+    /**
+     * Starts a log written to the given stream.
+     * @param stream The stream to write to; it is closed by {@link #close()}.
+     */
+    public InputRecorder(OutputStream stream) {
+        try {
+            start(stream);
+        } catch (IOException ex) {
+            stop(ex);
+        }
+    }
+
+    private void start(OutputStream stream) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeDouble(GameClock.getTickRate());
+        out.writeInt(KEYFRAME_INTERVAL);
+        out.writeByte(RECORDED_KEYS.length);
+        for (Keys key : RECORDED_KEYS) {
+            out.writeUTF(key.name());
+        }
+    }
+
+    /**
+     * Records the input of the tick that just ran and the checksum of the state it led to.
+     * @param input The input the tick read.
+     * @param checksum The state checksum after the tick.
+     */
+    public void record(GameInput input, int checksum) {
+        if (out == null) {
+            return;
+        }
+        int flags = 0;
+        for (int i = 0; i < RECORDED_BUTTONS.length; i++) {
+            if (input.isDown(RECORDED_BUTTONS[i])) {
+                flags |= 1 << i;
+            }
+        }
+        int keysDown = 0;
+        int keysPressed = 0;
+        for (int i = 0; i < RECORDED_KEYS.length; i++) {
+            if (input.isDown(RECORDED_KEYS[i])) {
+                keysDown |= 1 << i;
+            }
+            if (input.wasPressed(RECORDED_KEYS[i])) {
+                keysPressed |= 1 << i;
+            }
+        }
+        double mouseX = input.getMouseX();
+        double mouseY = input.getMouseY();
+        boolean mouseMoved = mouseX != lastMouseX || mouseY != lastMouseY;
+        if (mouseMoved) {
+            flags |= MOUSE_MOVED_FLAG;
+        }
+        tick++;
+        boolean keyframe = tick % KEYFRAME_INTERVAL == 0;
+        if (keyframe) {
+            flags |= KEYFRAME_FLAG;
+        }
+
+        try {
+            out.writeByte(flags);
+            out.writeShort(keysDown);
+            out.writeShort(keysPressed);
+            if (mouseMoved) {
+                out.writeDouble(mouseX);
+                out.writeDouble(mouseY);
+                lastMouseX = mouseX;
+                lastMouseY = mouseY;
+            }
+            out.writeInt(checksum);
+            if (keyframe) {
+                Keyframe.capture(tick).write(out);
+            }
+        } catch (IOException ex) {
+            stop(ex);
+        }
+    }
+
+    /**
+     * Returns the number of ticks recorded so far.
+     * @return The number of ticks.
+     */
+    public int getTicks() {
+        return tick;
+    }
+
+    /**
+     * Finishes the log and closes it.
+     */
+    public void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        out = null;
+    }
+
+    // a failing recording must not take the game down with it, so give up on the log and keep playing
+    private void stop(IOException ex) {
+        ex.printStackTrace();
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // already reported the first failure
+            }
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,103 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Readable snapshot of the game state at a tick of an input log: which room the player is in and how they are
+ * doing. The per-tick checksums find the tick a replay diverges at; keyframes show what diverged.
+ */
+public class Keyframe {
+    /** The tick the snapshot was taken after, counted from 1. */
+    public final int tick;
+    /** The room the player is in. */
+    public final String roomName;
+    /** The player's x-coordinate. */
+    public final double playerX;
+    /** The player's y-coordinate. */
+    public final double playerY;
+    /** The player's health. */
+    public final double health;
+    /** The player's coins. */
+    public final double coins;
+    /** The player's keys. */
+    public final double keys;
+
+    /**
+     * Creates a keyframe.
+     * @param tick The tick the snapshot was taken after.
+     * @param roomName The room the player is in.
+     * @param playerX The player's x-coordinate.
+     * @param playerY The player's y-coordinate.
+     * @param health The player's health.
+     * @param coins The player's coins.
+     * @param keys The player's keys.
+     */
+    public Keyframe(int tick, String roomName, double playerX, double playerY, double health, double coins,
+                    double keys) {
+        this.tick = tick;
+        this.roomName = roomName;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.health = health;
+        this.coins = coins;
+        this.keys = keys;
+    }
+
+    /**
+     * Takes a snapshot of the current game state.
+     * @param tick The number of ticks run so far.
+     * @return The keyframe.
+     */
+    public static Keyframe capture(int tick) {
+        Player player = ShadowDungeon.getPlayer();
+        return new Keyframe(tick, ShadowDungeon.getCurrRoomName(), player.x, player.y,
+                player.health, player.coins, player.keys);
+    }
+
+    /**
+     * Reads a keyframe from an input log.
+     * @param in The log, positioned at the keyframe.
+     * @param tick The tick the keyframe belongs to.
+     * @return The keyframe.
+     * @throws IOException If the log cannot be read.
+     */
+    public static Keyframe read(DataInputStream in, int tick) throws IOException {
+        return new Keyframe(tick, in.readUTF(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+                in.readDouble());
+    }
+
+    /**
+     * Writes this keyframe to an input log; the tick is implied by its position in the log.
+     * @param out The log to write to.
+     * @throws IOException If the log cannot be written.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeUTF(roomName);
+        out.writeDouble(playerX);
+        out.writeDouble(playerY);
+        out.writeDouble(health);
+        out.writeDouble(coins);
+        out.writeDouble(keys);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Keyframe)) {
+            return false;
+        }
+        Keyframe frame = (Keyframe) other;
+        return tick == frame.tick && roomName.equals(frame.roomName) && playerX == frame.playerX
+                && playerY == frame.playerY && health == frame.health && coins == frame.coins && keys == frame.keys;
+    }
+
+    @Override
+    public int hashCode() {
+        return roomName.hashCode() * 31 + tick;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("tick %d: room %s, player at (%.2f, %.2f), health %.2f, coins %.2f, keys %.0f",
+                tick, roomName, playerX, playerY, health, coins, keys);
+    }
+}
@@ -0,0 +1,169 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Compiled level file: the layout of every room in a binary form that loads without parsing text.
+ * <p>
+ * The file starts with a header: the magic number, the format version, a name table holding every room name
+ * (each as its length in bytes and its UTF-8 bytes), and an index of the rooms, each entry the name table index of
+ * the room, the offset of its section from the start of the file and the section's length. The sections follow,
+ * each holding fixed-width records per object type as described in {@link RoomConfig}. All numbers are big-endian.
+ * <p>
+ * Loading maps the file into memory and reads each section in place. Set levels.file in app.properties to load
+ * the rooms from a level file instead of from the layout entries in the properties; run this class to compile those
+ * entries into a level file.
+ */
+public class LevelFile {
+    /** Marks the start of a level file. */
+    public static final int MAGIC = 0x53444C56;
+    /** Version of the level file format. */
+    public static final short VERSION = 3;
+
+    /**
+     * Writes the layouts of the given rooms into a level file, replacing it if it exists.
+     * @param rooms The room layouts.
+     * @param levelFile The path of the level file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Collection<RoomConfig> rooms, String levelFile) throws IOException {
+        Map<String, Integer> nameIndex = new LinkedHashMap<>();
+        for (RoomConfig room : rooms) {
+            nameIndex.putIfAbsent(room.name, nameIndex.size());
+            for (RoomConfig.DoorPlacement door : new RoomConfig.DoorPlacement[] {room.door, room.primaryDoor,
+                    room.secondaryDoor}) {
+                if (door != null) {
+                    nameIndex.putIfAbsent(door.toRoomName, nameIndex.size());
+                }
+            }
+        }
+
+        // write the sections first, so the index knows where each one starts
+        ByteArrayOutputStream sections = new ByteArrayOutputStream();
+        DataOutputStream sectionOut = new DataOutputStream(sections);
+        int[] offsets = new int[rooms.size()];
+        int[] lengths = new int[rooms.size()];
+        int room = 0;
+        for (RoomConfig layout : rooms) {
+            offsets[room] = sectionOut.size();
+            layout.write(sectionOut, nameIndex);
+            lengths[room] = sectionOut.size() - offsets[room];
+            room++;
+        }
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerOut = new DataOutputStream(header);
+        headerOut.writeInt(MAGIC);
+        headerOut.writeShort(VERSION);
+        headerOut.writeInt(nameIndex.size());
+        for (String name : nameIndex.keySet()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            headerOut.writeShort(bytes.length);
+            headerOut.write(bytes);
+        }
+        headerOut.writeInt(rooms.size());
+        int headerSize = headerOut.size() + rooms.size() * 3 * Integer.BYTES;
+        room = 0;
+        for (RoomConfig layout : rooms) {
+            headerOut.writeInt(nameIndex.get(layout.name));
+            headerOut.writeInt(headerSize + offsets[room]);
+            headerOut.writeInt(lengths[room]);
+            room++;
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(levelFile)))) {
+            header.writeTo(out);
+            sections.writeTo(out);
+        }
+    }
+
+    /**
+     * Memory-maps a level file and reads the layout of every room in it.
+     * @param levelFile The path of the level file.
+     * @return The room layouts by room name.
+     * @throws IOException If the file cannot be read or is not a level file of a supported version.
+     */
+    public static Map<String, RoomConfig> read(String levelFile) throws IOException {
+        MappedByteBuffer file;
+        try (FileChannel channel = FileChannel.open(Paths.get(levelFile), StandardOpenOption.READ)) {
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (file.getInt() != MAGIC) {
+            throw new IOException("Not a level file: " + levelFile);
+        }
+        short version = file.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported level file version: " + version);
+        }
+
+        String[] names = new String[file.getInt()];
+        for (int i = 0; i < names.length; i++) {
+            byte[] bytes = new byte[file.getShort()];
+            file.get(bytes);
+            names[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int roomCount = file.getInt();
+        Map<String, RoomConfig> rooms = new HashMap<>();
+        for (int i = 0; i < roomCount; i++) {
+            String name = names[file.getInt()];
+            int offset = file.getInt();
+            int length = file.getInt();
+            ByteBuffer section = file.duplicate();
+            section.position(offset).limit(offset + length);
+            rooms.put(name, new RoomConfig(name, section.slice(), names));
+        }
+        return Collections.unmodifiableMap(rooms);
+    }
+
+    /**
+     * Reads a level file, exiting the program if that fails, like {@link IOUtils#readPropertiesFile}.
+     * @param levelFile The path of the level file.
+     * @return The room layouts by room name.
+     */
+    public static Map<String, RoomConfig> load(String levelFile) {
+        try {
+            return read(levelFile);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+        return null;
+    }
+
+    /**
+     * Compiles the room layouts in the game properties into a level file.
+     * @param args Optionally the path of the properties file, then the path of the level file to write.
+     */
+    public static void main(String[] args) {
+        String propertiesFile = args.length > 0 ? args[0] : "res/app.properties";
+        String levelFile = args.length > 1 ? args[1] : "res/levels.bin";
+
+        Properties gameProps = IOUtils.readPropertiesFile(propertiesFile);
+        Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
+        // compile what the properties say, not an older level file they point to
+        gameProps.remove(GameConfig.LEVEL_FILE_KEY);
+        GameConfig config = GameConfig.from(gameProps, messageProps);
+        try {
+            write(config.getRooms().values(), levelFile);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+        System.out.println("Compiled " + config.getRooms().size() + " rooms into " + levelFile);
+    }
+}
@@ -1,12 +1,11 @@
-import bagel.Image;
 import bagel.util.Point;
 
 /**
  * Represents the Marine player character who is immune to rivers and has unique appearance when facing left or right.
  */
 public class Marine extends Player{
-    private static final Image RIGHT_IMAGE = new Image("res/marine_right.png");
-    private static final Image LEFT_IMAGE = new Image("res/marine_left.png");
+    private static final Sprite RIGHT_IMAGE = Assets.getSprite("res/marine_right.png");
+    private static final Sprite LEFT_IMAGE = Assets.getSprite("res/marine_left.png");
 
     /**
      * Creates a new Marine at the specified position.
@@ -14,7 +13,7 @@ public class Marine extends Player{
      */
     public Marine(Point position){
         super(position);
-        this.currImage = RIGHT_IMAGE;
+        setCurrImage(RIGHT_IMAGE);
     }
 
     /**
@@ -30,8 +29,8 @@ public class Marine extends Player{
      */
     @Override
     public void draw() {
-        currImage = faceLeft ? LEFT_IMAGE : RIGHT_IMAGE; // NOTE: this is an example of using the ternary operator
-        currImage.draw(position.x, position.y);
+        setCurrImage(faceLeft ? LEFT_IMAGE : RIGHT_IMAGE); // NOTE: this is an example of using the ternary operator
+        currImage.draw(GameClock.lerp(lastTickX, x), GameClock.lerp(lastTickY, y), SpriteBatch.Layer.PLAYER);
         UserInterface.drawStats(health, coins, keys, weaponStat);
     }
 }
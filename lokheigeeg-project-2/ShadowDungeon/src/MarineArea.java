@@ -1,11 +1,10 @@
-import bagel.Image;
 import bagel.util.Point;
 /**
  * Represents the area where the Marine character can be selected or displayed.
  */
 public class MarineArea {
     private final Point position;
-    private final Image image;
+    private final Sprite image;
 
     /**
      * Creates a MarineArea at the specified position.
@@ -13,13 +12,13 @@ public class MarineArea {
      */
     public MarineArea(Point position) {
         this.position = position;
-        this.image = new Image("res/marine_sprite.png");
+        this.image = Assets.getSprite("res/marine_sprite.png");
     }
     /**
      * Draws the Marine area image on the screen.
      */
     public void draw() {
-        image.draw(position.x, position.y);
+        image.draw(position.x, position.y, SpriteBatch.Layer.FURNITURE);
     }
 
 
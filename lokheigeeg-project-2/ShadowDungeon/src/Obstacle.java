@@ -1,4 +1,3 @@
-import bagel.util.Rectangle;
 /**
  * Represents an obstacle that has a bounding box for collision detection.
  */
@@ -7,5 +6,16 @@ public interface Obstacle {
      * Returns the bounding box of the obstacle.
      * @return The bounding box of this obstacle.
      */
-    Rectangle getBoundingBox();
+    BoundingBox getBoundingBox();
+
+    /**
+     * Updates the obstacle's interaction with the player, e.g. stopping the player from moving through it.
+     * @param player The player in the room.
+     */
+    void update(Player player);
+
+    /**
+     * Draws the obstacle.
+     */
+    void draw();
 }
@@ -0,0 +1,68 @@
+import bagel.util.Point;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Patrol components of the enemies that walk a looping route.
+ */
+public class PatrolStore extends ComponentStore {
+    /** The route of each patrol, as x and y coordinates of its points in turn. */
+    public double[][] route = new double[0][];
+    /** The index of the route point each patrol is heading to. */
+    public int[] target = new int[0];
+    /** The distance each patrol covers per tick. */
+    public double[] speed = new double[0];
+
+    /**
+     * Creates an empty store.
+     */
+    public PatrolStore() {
+        grow(capacity());
+    }
+
+    /**
+     * Makes an entity walk the given route, starting towards its first point.
+     * @param entity The entity.
+     * @param points The route, which loops back to its first point at the end.
+     * @param walkSpeed The distance covered per tick.
+     * @return The slot of the new component.
+     */
+    public int add(int entity, List<Point> points, double walkSpeed) {
+        int slot = add(entity);
+        double[] coordinates = new double[points.size() * 2];
+        for (int i = 0; i < points.size(); i++) {
+            coordinates[i * 2] = points.get(i).x;
+            coordinates[i * 2 + 1] = points.get(i).y;
+        }
+        route[slot] = coordinates;
+        target[slot] = 0;
+        speed[slot] = walkSpeed;
+        return slot;
+    }
+
+    /**
+     * Replaces the patrol components in this store with copies of another store's.
+     * @param other The store to copy.
+     */
+    public void copyFrom(PatrolStore other) {
+        copyEntitiesFrom(other);
+        System.arraycopy(other.route, 0, route, 0, size);
+        System.arraycopy(other.target, 0, target, 0, size);
+        System.arraycopy(other.speed, 0, speed, 0, size);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        route[to] = route[from];
+        target[to] = target[from];
+        speed[to] = speed[from];
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        route = Arrays.copyOf(route, capacity);
+        target = Arrays.copyOf(target, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.Arrays;
+
+/**
+ * Pickup components of the keys and treasure boxes the player collects by touching them.
+ */
+public class PickupStore extends ComponentStore {
+    /** Whether each pickup is locked, needing the player to press K and spend a key to open it. */
+    public boolean[] locked = new boolean[0];
+    /** Keys the player gets from each pickup. */
+    public int[] keys = new int[0];
+    /** Coins the player gets from each pickup. */
+    public double[] coins = new double[0];
+
+    /**
+     * Creates an empty store.
+     */
+    public PickupStore() {
+        grow(capacity());
+    }
+
+    /**
+     * Makes an entity collectable.
+     * @param entity The entity.
+     * @param isLocked Whether opening it takes a key.
+     * @param keyCount The keys it gives.
+     * @param coinValue The coins it gives.
+     * @return The slot of the new component.
+     */
+    public int add(int entity, boolean isLocked, int keyCount, double coinValue) {
+        int slot = add(entity);
+        locked[slot] = isLocked;
+        keys[slot] = keyCount;
+        coins[slot] = coinValue;
+        return slot;
+    }
+
+    /**
+     * Replaces the pickup components in this store with copies of another store's.
+     * @param other The store to copy.
+     */
+    public void copyFrom(PickupStore other) {
+        copyEntitiesFrom(other);
+        System.arraycopy(other.locked, 0, locked, 0, size);
+        System.arraycopy(other.keys, 0, keys, 0, size);
+        System.arraycopy(other.coins, 0, coins, 0, size);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        locked[to] = locked[from];
+        keys[to] = keys[from];
+        coins[to] = coins[from];
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        locked = Arrays.copyOf(locked, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        coins = Arrays.copyOf(coins, capacity);
+    }
+}
@@ -1,21 +1,21 @@
-import bagel.*;
+import bagel.Keys;
+import bagel.MouseButtons;
 import bagel.util.Point;
-import bagel.util.Rectangle;
-import bagel.util.Vector2;
-
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Player character that can move around and between rooms, defeat enemies, collect coins
  */
 public class Player {
-    /** Previous frame position of the player. */
-    public Point prevPosition;
-    /** Current position of the player. */
-    public Point position;
-    /** Current sprite image used to draw the player. */
-    public  Image currImage;
+    /** Current x-coordinate of the player. */
+    public double x;
+    /** Current y-coordinate of the player. */
+    public double y;
+    /** X-coordinate before the last move, which a collision pushes the player back to. */
+    public double prevX;
+    /** Y-coordinate before the last move, which a collision pushes the player back to. */
+    public double prevY;
+    /** Current sprite used to draw the player. */
+    public Sprite currImage;
     /** Current health value of the player. */
     public double health;
     /** Movement speed per frame. */
@@ -31,25 +31,33 @@ public class Player {
     /** Frames since the last shot was fired. */
     public double lastShot = 1000;
     /** Active bullets fired by the player. */
-    public List<Bullet> bullets = new ArrayList<Bullet>();
+    public BulletStore bullets = createBulletStore();
     /** Whether a character has been selected by the player. */
     public boolean hasSelectedChar = false;
     /** Extra coins gained per kill from perks. */
     public double extraCoin = 0;
+    /** X-coordinate at the start of the last tick, used to interpolate drawing between ticks. */
+    public double lastTickX;
+    /** Y-coordinate at the start of the last tick, used to interpolate drawing between ticks. */
+    public double lastTickY;
+    /** Bounding box of the current sprite at the current position, kept up to date as the player moves. */
+    public BoundingBox box;
 
 
-    private static final Image RIGHT_IMAGE = new Image("res/player_right.png");
-    private static final Image LEFT_IMAGE = new Image("res/player_left.png");
+    private static final Sprite RIGHT_IMAGE = Assets.getSprite("res/player_right.png");
+    private static final Sprite LEFT_IMAGE = Assets.getSprite("res/player_left.png");
 
     /**
      * Creates a player at the specified position using default speed and health from properties.
      * @param position The initial position of the player.
      */
     public Player(Point position) {
-        this.position = position;
+        this.x = this.prevX = this.lastTickX = position.x;
+        this.y = this.prevY = this.lastTickY = position.y;
         this.currImage = RIGHT_IMAGE;
-        this.speed = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("movingSpeed"));
-        this.health = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("initialHealth"));
+        this.box = new BoundingBox(currImage, x, y);
+        this.speed = GameClock.perTick(ShadowDungeon.getConfig().movingSpeed);
+        this.health = ShadowDungeon.getConfig().initialHealth;
 
     }
 
@@ -58,24 +66,32 @@ public class Player {
      * @param other The player to copy from.
      */
     public Player(Player other) {
-        this.position = other.position;
+        this.x = other.x;
+        this.y = other.y;
+        this.prevX = other.prevX;
+        this.prevY = other.prevY;
+        this.lastTickX = other.lastTickX;
+        this.lastTickY = other.lastTickY;
         this.health = other.health;
         this.speed = other.speed;
         this.coins = other.coins;
         this.faceLeft = other.faceLeft;
         this.currImage = other.currImage;
+        this.box = new BoundingBox(currImage, x, y);
     }
 
     /**
      * Updates movement, facing, bounds checking, and shooting based on current input.
      * @param input The current keyboard/mouse input.
      */
-    public void update(Input input) {
+    public void update(GameInput input) {
         lastShot++;
+        lastTickX = x;
+        lastTickY = y;
 
         // check movement keys and mouse cursor
-        double currX = position.x;
-        double currY = position.y;
+        double currX = x;
+        double currY = y;
 
         if (input.isDown(Keys.A)) {
             currX -= speed;
@@ -90,24 +106,27 @@ public class Player {
             currY += speed;
         }
 
-        faceLeft = input.getMouseX() < currX;
+        // the mouse is on the screen, which shows the part of the room the camera centres on the player
+        double mouseX = input.getMouseX() + Camera.leftFor(x);
+        double mouseY = input.getMouseY() + Camera.topFor(y);
+        faceLeft = mouseX < currX;
 
-        // update the player position accordingly and ensure it can't move past the game window
-        Rectangle rect = currImage.getBoundingBoxAt(new Point(currX, currY));
-        Point topLeft = rect.topLeft();
-        Point bottomRight = rect.bottomRight();
-        if (topLeft.x >= 0 && bottomRight.x <= Window.getWidth() && topLeft.y >= 0 && bottomRight.y <=
-                Window.getHeight()) {
+        // update the player position accordingly and ensure it can't move past the edges of the room
+        double halfWidth = currImage.getWidth() / 2;
+        double halfHeight = currImage.getHeight() / 2;
+        if (currX - halfWidth >= 0 && currX + halfWidth <= ShadowDungeon.roomWidth && currY - halfHeight >= 0
+                && currY + halfHeight <= ShadowDungeon.roomHeight) {
             move(currX, currY);
         }
         if (input.isDown(MouseButtons.LEFT)){
 
-            double shootFreq = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("bulletFreq"));
+            double shootFreq = GameClock.ticks(ShadowDungeon.getConfig().bulletFreq);
             if (lastShot >= shootFreq){
-                Point centre = getCurrImage().getBoundingBoxAt(getPosition()).centre();
-                Point mouse  = input.getMousePosition();
-                Vector2 dir  = new Vector2(mouse.x - centre.x, mouse.y - centre.y).normalised();
-                bullets.add(new Bullet(centre, dir));
+                // normalised by hand, as a Vector2 per shot would be the only allocation left in a tick
+                double dirX = mouseX - x;
+                double dirY = mouseY - y;
+                double length = Math.sqrt(dirX * dirX + dirY * dirY);
+                bullets.fire(x, y, dirX / length, dirY / length);
                 /***
                 Bullet bullet = new Bullet(position, input.directionToMouse(input.getMousePosition()));
                 bullets.add(bullet);
@@ -123,15 +142,34 @@ public class Player {
      * @param y The new y-coordinate.
      */
     public void move(double x, double y) {
-        prevPosition = position;
-        position = new Point(x, y);
+        prevX = this.x;
+        prevY = this.y;
+        this.x = x;
+        this.y = y;
+        box.moveTo(x, y);
+    }
+    /**
+     * Moves the player back to where it was before its last move, e.g. after walking into a wall.
+     */
+    public void moveBack() {
+        move(prevX, prevY);
+    }
+    /**
+     * Moves the player to the given coordinates without interpolating from its old position, e.g. between rooms.
+     * @param x The new x-coordinate.
+     * @param y The new y-coordinate.
+     */
+    public void teleport(double x, double y) {
+        move(x, y);
+        lastTickX = x;
+        lastTickY = y;
     }
     /**
      * Draws the player and the on-screen stats UI.
      */
     public void draw() {
-        currImage = faceLeft ? LEFT_IMAGE : RIGHT_IMAGE; // NOTE: this is an example of using the ternary operator
-        currImage.draw(position.x, position.y);
+        setCurrImage(faceLeft ? LEFT_IMAGE : RIGHT_IMAGE); // NOTE: this is an example of using the ternary operator
+        currImage.draw(GameClock.lerp(lastTickX, x), GameClock.lerp(lastTickY, y), SpriteBatch.Layer.PLAYER);
         UserInterface.drawStats(health, coins,keys, weaponStat);
     }
     /**
@@ -154,32 +192,82 @@ public class Player {
 
     /**
      * Returns the player's current position.
-     * @return The current position.
+     * @return A new point at the current position.
      */
     public Point getPosition() {
-        return position;
+        return new Point(x, y);
+    }
+    /**
+     * Returns the player's current x-coordinate.
+     * @return The x-coordinate.
+     */
+    public double getX() {
+        return x;
+    }
+    /**
+     * Returns the player's current y-coordinate.
+     * @return The y-coordinate.
+     */
+    public double getY() {
+        return y;
     }
     /**
-     * Returns the image currently used to draw the player.
-     * @return The current image.
+     * Returns the sprite currently used to draw the player.
+     * @return The current sprite.
      */
-    public Image getCurrImage() {
+    public Sprite getCurrImage() {
         return currImage;
     }
     /**
-     * Returns the player's previous position.
-     * @return The previous position, or null if never moved.
+     * Returns the player's bounding box at its current position.
+     * @return The bounding box of the player.
+     */
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+    /**
+     * Changes the sprite used to draw the player, resizing its bounding box to match.
+     * @param image The new sprite.
+     */
+    public void setCurrImage(Sprite image) {
+        if (image != currImage) {
+            currImage = image;
+            box.set(image, x, y);
+        }
+    }
+    /**
+     * Returns the player's position before its last move.
+     * @return A new point at the previous position.
      */
     public Point getPrevPosition() {
-        return prevPosition;
+        return new Point(prevX, prevY);
     }
     /**
-     * Returns the list of active bullets fired by the player.
-     * @return The list of bullets.
+     * Returns the active bullets fired by the player.
+     * @return The store of bullets.
      */
-    public List<Bullet> getBullets(){
+    public BulletStore getBullets(){
         return bullets;
     }
+
+    /**
+     * Adds the player's state, including its bullets, to a checksum.
+     * @param checksum The checksum to add to.
+     */
+    public void addTo(Checksum checksum) {
+        checksum.add(x);
+        checksum.add(y);
+        checksum.add(health);
+        checksum.add(coins);
+        checksum.add(keys);
+        checksum.add(lastShot);
+        bullets.addTo(checksum);
+    }
+
+    private static BulletStore createBulletStore() {
+        GameConfig config = ShadowDungeon.getConfig();
+        return new BulletStore(config.bulletPoolSize, config.projectilePoolEviction);
+    }
     /**
      * Applies coin rewards for a kill, including any perk bonus.
      * @param baseCoins The base coins earned for the kill.
@@ -1,63 +1,54 @@
-import bagel.Image;
-import bagel.Input;
 import bagel.Keys;
 
-import java.util.Map;
-import java.util.Properties;
-
 /**
  * Room where the game starts
  */
-public class PrepRoom {
+public class PrepRoom implements Room {
     private Player player;
     private Door door;
     private RestartArea restartArea;
     private RobotArea robotArea;
     private MarineArea marineArea;
     private boolean stopCurrentUpdateCall = false; // this determines whether to prematurely stop the update execution
+    private final String roomName;
 
     /**
-     * Initializes room entities from the given game properties.
-     * @param gameProperties The properties containing object configurations for this room.
+     * Creates the room with the given name, whose layout initEntities reads.
+     * @param roomName The name of this room.
      */
-    public void initEntities(Properties gameProperties) {
-        // find the configuration of game objects for this room
-        for (Map.Entry<Object, Object> entry: gameProperties.entrySet()) {
-            String roomSuffix = String.format(".%s", ShadowDungeon.PREP_ROOM_NAME);
-            if (entry.getKey().toString().contains(roomSuffix)) {
-                String objectType = entry.getKey().toString().substring(0, entry.getKey().toString().length() - roomSuffix.length());
-                String propertyValue = entry.getValue().toString();
-
-                switch (objectType) {
-                    case "door":
-                        String[] coordinates = propertyValue.split(",");
-                        door = new Door(IOUtils.parseCoords(propertyValue), coordinates[2]);
-                        break;
-                    case "restartarea":
-                        restartArea = new RestartArea(IOUtils.parseCoords(propertyValue));
-                        break;
-                    default:
-                }
-            }
-        }
+    public PrepRoom(String roomName) {
+        this.roomName = roomName;
     }
 
     /**
-     * Renders the prep room and handles input for character selection and door logic.
-     * @param input The current keyboard and mouse input.
+     * Initializes room entities from the given game configuration.
+     * @param config The game configuration holding the object layout of this room.
      */
-    public void update(Input input) {
-        UserInterface.drawStartMessages();
-
-        robotArea = new RobotArea(IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("Robot")));
-        marineArea = new MarineArea(IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("Marine")));
-        int fontSize = Integer.parseInt(ShadowDungeon.getGameProps().getProperty("playerStats.fontSize"));
-        UserInterface.drawData(ShadowDungeon.getMessageProps().getProperty("robotDescription"),fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("robotMessage") ));
-        UserInterface.drawData(ShadowDungeon.getMessageProps().getProperty("marineDescription"),fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("marineMessage") ));
+    @Override
+    public void initEntities(GameConfig config) {
+        RoomConfig layout = config.getRoom(roomName);
+        door = new Door(layout.door.position, layout.door.toRoomName);
+        restartArea = new RestartArea(layout.restartArea);
+        robotArea = new RobotArea(config.robotArea);
+        marineArea = new MarineArea(config.marineArea);
+    }
 
+    /**
+     * Puts the room back in its state at the start of the game, keeping the objects built by initEntities.
+     */
+    @Override
+    public void reset() {
+        door.reset();
+        player = null;
+        stopCurrentUpdateCall = false;
+    }
 
+    /**
+     * Handles input for character selection and door logic in the prep room.
+     * @param input The current keyboard and mouse input.
+     */
+    @Override
+    public void update(GameInput input) {
         if (input.wasPressed(Keys.R)) {
             ShadowDungeon.setPlayer(new Robot(ShadowDungeon.getPlayer().getPosition()));
             ShadowDungeon.getPlayer().setSelectedChar(true);
@@ -70,32 +61,23 @@ public class PrepRoom {
         this.player = ShadowDungeon.getPlayer();
 
 
-        // update and draw all game objects in this room
+        // update all game objects in this room
         door.update(player);
-        door.draw();
         if (stopUpdatingEarlyIfNeeded()) {
             return;
         }
 
 
-        restartArea.update(input, player);
-        restartArea.draw();
-
-        if (robotArea != null) { robotArea.draw(); }
-        if (marineArea != null) { marineArea.draw(); }
-
+        if (restartArea.update(input, player)) {
+            return;     // the rest of this update belongs to the game that was just reset
+        }
 
         if (player != null) {
             player.update(input);
-            player.draw();
         }
 
         if (player.hasSelectedChar && player.getBullets() != null) {
-            for (Bullet bullet : player.getBullets()) {
-                bullet.setActive(true);
-                bullet.update();
-                bullet.draw();
-            }
+            player.getBullets().update();
         }
 
         // door unlock mechanism
@@ -104,6 +86,32 @@ public class PrepRoom {
         }
     }
 
+    /**
+     * Renders the prep room, its messages and all of its game objects.
+     */
+    @Override
+    public void draw() {
+        UserInterface.drawStartMessages();
+
+        GameConfig config = ShadowDungeon.getConfig();
+        UserInterface.drawData(config.robotDescription, config.playerStatsFontSize, config.robotMessage);
+        UserInterface.drawData(config.marineDescription, config.playerStatsFontSize, config.marineMessage);
+
+        door.draw();
+        restartArea.draw();
+
+        if (robotArea != null) { robotArea.draw(); }
+        if (marineArea != null) { marineArea.draw(); }
+
+        if (player != null) {
+            player.draw();
+
+            if (player.hasSelectedChar && player.getBullets() != null) {
+                player.getBullets().draw();
+            }
+        }
+    }
+
     private boolean stopUpdatingEarlyIfNeeded() {
         if (stopCurrentUpdateCall) {
             player = null;
@@ -117,6 +125,7 @@ public class PrepRoom {
      * Sets the current player reference for this room.
      * @param player The player to associate with this room.
      */
+    @Override
     public void setPlayer(Player player) {
         this.player = player;
     }
@@ -124,6 +133,7 @@ public class PrepRoom {
     /**
      * Flags the room to stop the current update call early.
      */
+    @Override
     public void stopCurrentUpdateCall() {
         stopCurrentUpdateCall = true;
     }
@@ -135,10 +145,39 @@ public class PrepRoom {
         return door;
     }
     /**
-     * Finds the door by its destination (same as {@link #findDoor()} here).
-     * @return The door for this room.
+     * Unlocks the door the player arrives through, which is the only door of this room.
+     * @param fromRoomName The name of the room the player comes from.
+     * @return The door to place the player at.
      */
-    public Door findDoorByDestination() {
+    @Override
+    public Door enterFrom(String fromRoomName) {
+        door.unlock(true);
         return door;
     }
+
+    /**
+     * Keeps nothing, as this room rebuilds its state from the player when it is entered again.
+     * @return Null.
+     */
+    @Override
+    public RoomState save() {
+        return null;
+    }
+
+    /**
+     * Does nothing, as {@link #save()} keeps nothing.
+     * @param state The saved state.
+     */
+    @Override
+    public void restore(RoomState state) {
+    }
+
+    /**
+     * Adds the state of the door to a checksum.
+     * @param checksum The checksum to add to.
+     */
+    @Override
+    public void addTo(Checksum checksum) {
+        checksum.add(door.isUnlocked());
+    }
 }
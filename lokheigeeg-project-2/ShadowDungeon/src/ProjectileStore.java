@@ -0,0 +1,353 @@
+/**
+ * Fixed-capacity store of projectiles that all share one sprite, kept as parallel arrays of primitives instead of
+ * one object per projectile. Live projectiles are densely packed in slots 0 to size()-1, so the per-tick loops run
+ * over plain arrays with no branches on object type, which lets the JIT compile them into vector instructions.
+ * Removing a projectile moves the last live one into its slot.
+ */
+public abstract class ProjectileStore {
+    /**
+     * What to do when a projectile is spawned while the store is full.
+     */
+    public enum Eviction {
+        /** The new projectile is not spawned. */
+        DROP_NEW,
+        /** The oldest live projectile is replaced by the new one. */
+        RECYCLE_OLDEST
+    }
+
+    /** Returned by {@link #spawn} when no projectile was spawned. */
+    public static final int NONE = -1;
+
+    /** The sprite drawn for every projectile. */
+    protected final Sprite image;
+    /** Half the sprite width, from a projectile's centre to its left and right edges. */
+    protected final double halfWidth;
+    /** Half the sprite height, from a projectile's centre to its top and bottom edges. */
+    protected final double halfHeight;
+    /** Centre x-coordinate of each projectile. */
+    protected final double[] x;
+    /** Centre y-coordinate of each projectile. */
+    protected final double[] y;
+    /** Centre x-coordinate of each projectile at the previous tick, for render interpolation. */
+    protected final double[] lastX;
+    /** Centre y-coordinate of each projectile at the previous tick, for render interpolation. */
+    protected final double[] lastY;
+    /** Horizontal velocity of each projectile, in pixels per tick. */
+    protected final double[] vx;
+    /** Vertical velocity of each projectile, in pixels per tick. */
+    protected final double[] vy;
+    /** Damage dealt by each projectile. */
+    protected final double[] damage;
+    /** Whether each projectile is still flying; inactive ones are removed at the start of the next update. */
+    protected final boolean[] active;
+    /** The number of live projectiles. */
+    protected int size = 0;
+
+    private final Eviction eviction;
+    private final int[] older;      // spawn order of live slots, as a doubly linked list
+    private final int[] newer;
+    private int oldest = NONE;
+    private int newest = NONE;
+
+    /**
+     * Creates an empty store.
+     * @param image The sprite drawn for every projectile.
+     * @param capacity The maximum number of live projectiles.
+     * @param eviction What to do when spawning into a full store.
+     */
+    protected ProjectileStore(Sprite image, int capacity, Eviction eviction) {
+        this.image = image;
+        this.halfWidth = image.getWidth() / 2;
+        this.halfHeight = image.getHeight() / 2;
+        this.eviction = eviction;
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.lastX = new double[capacity];
+        this.lastY = new double[capacity];
+        this.vx = new double[capacity];
+        this.vy = new double[capacity];
+        this.damage = new double[capacity];
+        this.active = new boolean[capacity];
+        this.older = new int[capacity];
+        this.newer = new int[capacity];
+    }
+
+    /**
+     * Spawns a projectile and makes it the newest live one.
+     * @param startX The x-coordinate of the projectile's centre.
+     * @param startY The y-coordinate of the projectile's centre.
+     * @param velocityX The horizontal velocity in pixels per tick.
+     * @param velocityY The vertical velocity in pixels per tick.
+     * @param hitDamage The damage the projectile deals.
+     * @return The slot of the projectile, or {@link #NONE} if the store is full and new projectiles are dropped.
+     */
+    protected int spawn(double startX, double startY, double velocityX, double velocityY, double hitDamage) {
+        int slot;
+        if (size < x.length) {
+            slot = size++;
+        } else if (eviction == Eviction.RECYCLE_OLDEST && oldest != NONE) {
+            slot = oldest;
+            unlink(slot);
+        } else {
+            return NONE;
+        }
+
+        x[slot] = startX;
+        y[slot] = startY;
+        lastX[slot] = startX;
+        lastY[slot] = startY;
+        vx[slot] = velocityX;
+        vy[slot] = velocityY;
+        damage[slot] = hitDamage;
+        active[slot] = true;
+
+        // append to the spawn order
+        older[slot] = newest;
+        newer[slot] = NONE;
+        if (newest != NONE) {
+            newer[newest] = slot;
+        } else {
+            oldest = slot;
+        }
+        newest = slot;
+        return slot;
+    }
+
+    /**
+     * Removes a projectile, moving the last live projectile into its slot.
+     * @param slot The slot of the projectile to remove.
+     */
+    public void remove(int slot) {
+        unlink(slot);
+        size--;
+        if (slot == size) {
+            return;
+        }
+
+        int last = size;
+        x[slot] = x[last];
+        y[slot] = y[last];
+        lastX[slot] = lastX[last];
+        lastY[slot] = lastY[last];
+        vx[slot] = vx[last];
+        vy[slot] = vy[last];
+        damage[slot] = damage[last];
+        active[slot] = active[last];
+
+        // the moved projectile keeps its place in the spawn order
+        older[slot] = older[last];
+        newer[slot] = newer[last];
+        if (older[slot] != NONE) {
+            newer[older[slot]] = slot;
+        } else {
+            oldest = slot;
+        }
+        if (newer[slot] != NONE) {
+            older[newer[slot]] = slot;
+        } else {
+            newest = slot;
+        }
+    }
+
+    /**
+     * Removes every projectile that is no longer active.
+     */
+    public void removeInactive() {
+        for (int i = size - 1; i >= 0; i--) {
+            if (!active[i]) {
+                remove(i);
+            }
+        }
+    }
+
+    /**
+     * Removes every projectile.
+     */
+    public void clear() {
+        size = 0;
+        oldest = NONE;
+        newest = NONE;
+    }
+
+    /**
+     * Deactivates every projectile whose bounding box is not fully inside the room.
+     */
+    protected void cullOffScreen() {
+        double maxX = ShadowDungeon.roomWidth - halfWidth;
+        double maxY = ShadowDungeon.roomHeight - halfHeight;
+        for (int i = 0; i < size; i++) {
+            active[i] &= (x[i] >= halfWidth) & (x[i] <= maxX) & (y[i] >= halfHeight) & (y[i] <= maxY);
+        }
+    }
+
+    /**
+     * Deactivates every projectile that overlaps one of the given obstacles.
+     * @param obstacles The obstacles that stop projectiles.
+     */
+    protected void cullObstacles(StaticGrid<?> obstacles) {
+        for (int i = 0; i < size; i++) {
+            active[i] &= !obstacles.overlapsAny(x[i] - halfWidth, y[i] - halfHeight, x[i] + halfWidth,
+                    y[i] + halfHeight);
+        }
+    }
+
+    /**
+     * Checks whether a projectile's bounding box overlaps the given box, including touching edges.
+     * @param slot The slot of the projectile.
+     * @param box The box to test against.
+     * @return True if they overlap, false otherwise.
+     */
+    public boolean intersects(int slot, BoundingBox box) {
+        return intersects(slot, box.left(), box.top(), box.right(), box.bottom());
+    }
+
+    /**
+     * Checks whether a projectile's bounding box overlaps the given area, including touching edges.
+     * @param slot The slot of the projectile.
+     * @param left The smallest x-coordinate of the area.
+     * @param top The smallest y-coordinate of the area.
+     * @param right The largest x-coordinate of the area.
+     * @param bottom The largest y-coordinate of the area.
+     * @return True if they overlap, false otherwise.
+     */
+    public boolean intersects(int slot, double left, double top, double right, double bottom) {
+        return x[slot] + halfWidth >= left && x[slot] - halfWidth <= right
+                && y[slot] + halfHeight >= top && y[slot] - halfHeight <= bottom;
+    }
+
+    /**
+     * Draws every active projectile, interpolated between its last two ticks.
+     */
+    public void draw() {
+        for (int i = 0; i < size; i++) {
+            if (active[i]) {
+                image.draw(GameClock.lerp(lastX[i], x[i]), GameClock.lerp(lastY[i], y[i]), SpriteBatch.Layer.PROJECTILES);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of live projectiles.
+     * @return The number of live projectiles.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of live projectiles.
+     * @return The capacity of the store.
+     */
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /**
+     * Adds the position and state of every live projectile to a checksum.
+     * @param checksum The checksum to add to.
+     */
+    public void addTo(Checksum checksum) {
+        checksum.add(size);
+        for (int i = 0; i < size; i++) {
+            checksum.add(x[i]);
+            checksum.add(y[i]);
+            checksum.add(active[i]);
+        }
+    }
+
+    /**
+     * Returns the centre x-coordinate of a projectile.
+     * @param slot The slot of the projectile.
+     * @return The x-coordinate.
+     */
+    public double getX(int slot) {
+        return x[slot];
+    }
+
+    /**
+     * Returns the centre y-coordinate of a projectile.
+     * @param slot The slot of the projectile.
+     * @return The y-coordinate.
+     */
+    public double getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * Returns the left edge of a projectile's bounding box.
+     * @param slot The slot of the projectile.
+     * @return The smallest x-coordinate of the bounding box.
+     */
+    public double getLeft(int slot) {
+        return x[slot] - halfWidth;
+    }
+
+    /**
+     * Returns the top edge of a projectile's bounding box.
+     * @param slot The slot of the projectile.
+     * @return The smallest y-coordinate of the bounding box.
+     */
+    public double getTop(int slot) {
+        return y[slot] - halfHeight;
+    }
+
+    /**
+     * Returns the right edge of a projectile's bounding box.
+     * @param slot The slot of the projectile.
+     * @return The largest x-coordinate of the bounding box.
+     */
+    public double getRight(int slot) {
+        return x[slot] + halfWidth;
+    }
+
+    /**
+     * Returns the bottom edge of a projectile's bounding box.
+     * @param slot The slot of the projectile.
+     * @return The largest y-coordinate of the bounding box.
+     */
+    public double getBottom(int slot) {
+        return y[slot] + halfHeight;
+    }
+
+    /**
+     * Returns the damage dealt by a projectile.
+     * @param slot The slot of the projectile.
+     * @return The damage value.
+     */
+    public double getDamage(int slot) {
+        return damage[slot];
+    }
+
+    /**
+     * Checks whether a projectile is still flying.
+     * @param slot The slot of the projectile.
+     * @return True if active, false otherwise.
+     */
+    public boolean isActive(int slot) {
+        return active[slot];
+    }
+
+    /**
+     * Sets whether a projectile is still flying.
+     * @param slot The slot of the projectile.
+     * @param isActive True if the projectile should stay, false to remove it at the next update.
+     */
+    public void setActive(int slot, boolean isActive) {
+        active[slot] = isActive;
+    }
+
+    private void unlink(int slot) {
+        int before = older[slot];
+        int after = newer[slot];
+        if (before != NONE) {
+            newer[before] = after;
+        } else {
+            oldest = after;
+        }
+        if (after != NONE) {
+            older[after] = before;
+        } else {
+            newest = before;
+        }
+    }
+}
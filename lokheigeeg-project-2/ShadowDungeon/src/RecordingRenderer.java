@@ -0,0 +1,284 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renderer that draws nothing and records every frame's draw list instead, so the render path can be counted,
+ * measured and compared against a golden file on machines without a display.
+ * <p>
+ * Draws are kept in parallel arrays, one entry per draw: the texture (a sprite's image file or a text's font, as
+ * an index into a table of names), the layer (-1 for text), the text and font size of text draws, and the position
+ * as floats. Only image files and fonts are named in the table, numbered in the order they are first drawn, so two
+ * recordings of the same frames are equal entry by entry. The text of each draw is copied into one character buffer
+ * and kept as a range of it, as HUD text changes with every coin and hit point and would otherwise fill the table,
+ * so a recording only allocates when its buffers grow. Text is measured at a fixed width per character, as fonts
+ * need a window.
+ */
+public class RecordingRenderer implements Renderer {
+    private static final int MAGIC = 0x53444652;    // "SDFR"
+    private static final int VERSION = 2;
+    private static final int TEXT = -1;             // the layer of text draws
+    private static final double CHAR_WIDTH_PER_POINT = 0.5;
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private int[] spriteNames = new int[0];         // the name index of each sprite id seen, or -1
+
+    private int[] frameStarts = new int[64];        // the first draw of each frame, and the end of the last one
+    private int frameCount = 0;
+    private int[] textures = new int[1024];
+    private byte[] layers = new byte[1024];
+    private int[] textStarts = new int[1024];       // the range of chars holding the text of each text draw
+    private int[] textLengths = new int[1024];
+    private short[] fontSizes = new short[1024];
+    private float[] xs = new float[1024];
+    private float[] ys = new float[1024];
+    private int size = 0;
+    private char[] chars = new char[4096];
+    private int charCount = 0;
+
+    @Override
+    public void drawSprite(Sprite sprite, SpriteBatch.Layer layer, double x, double y) {
+        int id = sprite.getId();
+        if (id >= spriteNames.length) {
+            int oldLength = spriteNames.length;
+            spriteNames = Arrays.copyOf(spriteNames, Math.max(16, id * 2));
+            Arrays.fill(spriteNames, oldLength, spriteNames.length, -1);
+        }
+        if (spriteNames[id] == -1) {
+            spriteNames[id] = nameIndex(sprite.getFile());
+        }
+        add(spriteNames[id], layer.ordinal(), 0, 0, 0, x, y);
+    }
+
+    @Override
+    public void drawText(String fontFile, int fontSize, String text, double x, double y) {
+        add(nameIndex(fontFile), TEXT, appendText(text), text.length(), fontSize, x, y);
+    }
+
+    @Override
+    public double getTextWidth(String fontFile, int fontSize, String text) {
+        return text.length() * fontSize * CHAR_WIDTH_PER_POINT;
+    }
+
+    @Override
+    public void endFrame() {
+        if (frameCount + 1 == frameStarts.length) {
+            frameStarts = Arrays.copyOf(frameStarts, frameStarts.length * 2);
+        }
+        frameCount++;
+        frameStarts[frameCount] = size;
+    }
+
+    private int nameIndex(String name) {
+        Integer index = nameIds.get(name);
+        if (index == null) {
+            index = names.size();
+            names.add(name);
+            nameIds.put(name, index);
+        }
+        return index;
+    }
+
+    // copies text to the end of the char buffer, returning where it starts
+    private int appendText(String text) {
+        if (charCount + text.length() > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + text.length()));
+        }
+        int start = charCount;
+        text.getChars(0, text.length(), chars, start);
+        charCount += text.length();
+        return start;
+    }
+
+    private void add(int texture, int layer, int textStart, int textLength, int fontSize, double x, double y) {
+        if (size == textures.length) {
+            int capacity = size * 2;
+            textures = Arrays.copyOf(textures, capacity);
+            layers = Arrays.copyOf(layers, capacity);
+            textStarts = Arrays.copyOf(textStarts, capacity);
+            textLengths = Arrays.copyOf(textLengths, capacity);
+            fontSizes = Arrays.copyOf(fontSizes, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+        }
+        textures[size] = texture;
+        layers[size] = (byte) layer;
+        textStarts[size] = textStart;
+        textLengths[size] = textLength;
+        fontSizes[size] = (short) fontSize;
+        xs[size] = (float) x;
+        ys[size] = (float) y;
+        size++;
+    }
+
+    /**
+     * Returns the number of frames recorded.
+     * @return The frame count.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Returns the number of draws in a frame, sprites and text.
+     * @param frame The frame, from 0.
+     * @return The number of draws.
+     */
+    public int getDrawCount(int frame) {
+        return frameStarts[frame + 1] - frameStarts[frame];
+    }
+
+    /**
+     * Returns the number of times a frame switches texture: every sprite drawn with a different texture than the
+     * draw before it, text counting as a texture of its own.
+     * @param frame The frame, from 0.
+     * @return The number of texture runs.
+     */
+    public int getTextureRuns(int frame) {
+        int runs = 0;
+        for (int i = frameStarts[frame]; i < frameStarts[frame + 1]; i++) {
+            if (layers[i] != TEXT && (i == frameStarts[frame] || layers[i - 1] == TEXT
+                    || textures[i] != textures[i - 1])) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Lists the draws of a frame, one per line.
+     * @param frame The frame, from 0.
+     * @return The listing.
+     */
+    public String describe(int frame) {
+        StringBuilder listing = new StringBuilder();
+        for (int i = frameStarts[frame]; i < frameStarts[frame + 1]; i++) {
+            if (layers[i] == TEXT) {
+                listing.append(String.format("  text %s %d \"%s\" at %.1f,%.1f%n", names.get(textures[i]),
+                        fontSizes[i], new String(chars, textStarts[i], textLengths[i]), xs[i], ys[i]));
+            } else {
+                listing.append(String.format("  %s %s at %.1f,%.1f%n", SpriteBatch.Layer.values()[layers[i]],
+                        names.get(textures[i]), xs[i], ys[i]));
+            }
+        }
+        return listing.toString();
+    }
+
+    /**
+     * Finds the first frame in which this recording differs from another.
+     * @param other The other recording.
+     * @return The frame, or -1 if both recordings hold the same frames.
+     */
+    public int firstDifferentFrame(RecordingRenderer other) {
+        int frames = Math.min(frameCount, other.frameCount);
+        for (int frame = 0; frame < frames; frame++) {
+            if (!sameFrame(other, frame)) {
+                return frame;
+            }
+        }
+        return frameCount == other.frameCount ? -1 : frames;
+    }
+
+    private boolean sameFrame(RecordingRenderer other, int frame) {
+        if (getDrawCount(frame) != other.getDrawCount(frame)) {
+            return false;
+        }
+        for (int k = 0; k < getDrawCount(frame); k++) {
+            int i = frameStarts[frame] + k;
+            int j = other.frameStarts[frame] + k;
+            if (layers[i] != other.layers[j] || fontSizes[i] != other.fontSizes[j] || xs[i] != other.xs[j]
+                    || ys[i] != other.ys[j] || !names.get(textures[i]).equals(other.names.get(other.textures[j]))
+                    || (layers[i] == TEXT && !sameText(i, other, j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameText(int draw, RecordingRenderer other, int otherDraw) {
+        return Arrays.equals(chars, textStarts[draw], textStarts[draw] + textLengths[draw], other.chars,
+                other.textStarts[otherDraw], other.textStarts[otherDraw] + other.textLengths[otherDraw]);
+    }
+
+    /**
+     * Writes the recording to a file.
+     * @param file The path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(String file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(names.size());
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+            out.writeInt(charCount);
+            for (int i = 0; i < charCount; i++) {
+                out.writeChar(chars[i]);
+            }
+            out.writeInt(frameCount);
+            for (int frame = 0; frame <= frameCount; frame++) {
+                out.writeInt(frameStarts[frame]);
+            }
+            for (int i = 0; i < size; i++) {
+                out.writeInt(textures[i]);
+                out.writeByte(layers[i]);
+                out.writeInt(textStarts[i]);
+                out.writeInt(textLengths[i]);
+                out.writeShort(fontSizes[i]);
+                out.writeFloat(xs[i]);
+                out.writeFloat(ys[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a recording written by {@link #write(String)}.
+     * @param file The path of the file.
+     * @return The recording.
+     * @throws IOException If the file cannot be read or is not a recording.
+     */
+    public static RecordingRenderer read(String file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a frame recording: " + file);
+            }
+            RecordingRenderer recording = new RecordingRenderer();
+            int nameCount = in.readInt();
+            for (int i = 0; i < nameCount; i++) {
+                recording.nameIndex(in.readUTF());
+            }
+            recording.charCount = in.readInt();
+            recording.chars = new char[Math.max(1, recording.charCount)];
+            for (int i = 0; i < recording.charCount; i++) {
+                recording.chars[i] = in.readChar();
+            }
+            int frames = in.readInt();
+            recording.frameStarts = new int[frames + 1];
+            for (int frame = 0; frame <= frames; frame++) {
+                recording.frameStarts[frame] = in.readInt();
+            }
+            recording.frameCount = frames;
+            for (int i = 0; i < recording.frameStarts[frames]; i++) {
+                int texture = in.readInt();
+                int layer = in.readByte();
+                int textStart = in.readInt();
+                int textLength = in.readInt();
+                int fontSize = in.readShort();
+                recording.add(texture, layer, textStart, textLength, fontSize, in.readFloat(), in.readFloat());
+            }
+            return recording;
+        }
+    }
+}
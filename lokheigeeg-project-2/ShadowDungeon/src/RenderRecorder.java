@@ -0,0 +1,80 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Replays an input log headless like {@link Replayer}, rendering a frame after every tick into a
+ * {@link RecordingRenderer}, and reports how many draws and texture switches the frames took. The frames can be
+ * saved as a golden file, and a later run checked against it, so changes to the render path can be tested and
+ * measured without a display.
+ */
+public class RenderRecorder {
+    /**
+     * Renders every tick of a log, then saves the frames, or with --check compares them to saved ones.
+     * Exits with status 1 if the frames differ from the saved ones.
+     * @param args The path of the log, the path of the frames file, then optionally "--check".
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: RenderRecorder <input log> <frames file> [--check]");
+            System.exit(2);
+        }
+        boolean check = args.length > 2 && args[2].equals("--check");
+
+        try {
+            ReplayInput input = new ReplayInput(new FileInputStream(args[0]));
+            Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+            Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
+            gameProps.setProperty("simulation.tickRate", String.valueOf(input.getTickRate()));
+            ShadowDungeon.init(gameProps, messageProps);
+
+            RecordingRenderer frames = new RecordingRenderer();
+            ShadowDungeon.setRenderer(frames);
+            while (input.next()) {
+                ShadowDungeon.tick(input);
+                ShadowDungeon.render();
+            }
+            input.close();
+            report(frames);
+
+            if (!check) {
+                frames.write(args[1]);
+                System.out.println("Frames written to " + args[1]);
+                System.exit(0);
+            }
+            RecordingRenderer golden = RecordingRenderer.read(args[1]);
+            int frame = frames.firstDifferentFrame(golden);
+            if (frame == -1) {
+                System.out.println("Frames match " + args[1]);
+                System.exit(0);
+            }
+            System.out.println("Frame " + frame + " differs from " + args[1]);
+            if (frame < golden.getFrameCount()) {
+                System.out.print("  expected:\n" + golden.describe(frame));
+            }
+            if (frame < frames.getFrameCount()) {
+                System.out.print("  rendered:\n" + frames.describe(frame));
+            }
+            System.exit(1);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+    }
+
+    private static void report(RecordingRenderer frames) {
+        long draws = 0;
+        long runs = 0;
+        int maxDraws = 0;
+        int maxRuns = 0;
+        for (int frame = 0; frame < frames.getFrameCount(); frame++) {
+            draws += frames.getDrawCount(frame);
+            runs += frames.getTextureRuns(frame);
+            maxDraws = Math.max(maxDraws, frames.getDrawCount(frame));
+            maxRuns = Math.max(maxRuns, frames.getTextureRuns(frame));
+        }
+        int count = Math.max(1, frames.getFrameCount());
+        System.out.printf("%d frames: %.1f draws per frame (max %d), %.1f texture runs per frame (max %d)%n",
+                frames.getFrameCount(), (double) draws / count, maxDraws, (double) runs / count, maxRuns);
+    }
+}
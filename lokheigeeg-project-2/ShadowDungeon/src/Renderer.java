@@ -0,0 +1,38 @@
+/**
+ * Where the game's drawing goes: the game window through bagel, or a recording when there is no display.
+ * Sprites reach it through the {@link SpriteBatch}, already sorted; text is drawn as it comes.
+ */
+public interface Renderer {
+    /**
+     * Draws a sprite centred at the given coordinates.
+     * @param sprite The sprite.
+     * @param layer The layer the sprite was drawn in.
+     * @param x The x-coordinate of the centre.
+     * @param y The y-coordinate of the centre.
+     */
+    void drawSprite(Sprite sprite, SpriteBatch.Layer layer, double x, double y);
+
+    /**
+     * Draws a line of text.
+     * @param fontFile The path to the font file.
+     * @param fontSize The font size.
+     * @param text The text.
+     * @param x The x-coordinate of the left of the text.
+     * @param y The y-coordinate of the text's baseline.
+     */
+    void drawText(String fontFile, int fontSize, String text, double x, double y);
+
+    /**
+     * Measures a line of text.
+     * @param fontFile The path to the font file.
+     * @param fontSize The font size.
+     * @param text The text.
+     * @return The width of the text in pixels.
+     */
+    double getTextWidth(String fontFile, int fontSize, String text);
+
+    /**
+     * Marks the end of a frame, after everything in it was drawn.
+     */
+    void endFrame();
+}
@@ -0,0 +1,161 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+import bagel.util.Point;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumSet;
+
+/**
+ * Game input read back tick by tick from a log written by {@link InputRecorder}.
+ */
+public class ReplayInput implements GameInput {
+    private final DataInputStream in;
+    private final double tickRate;
+    private final Keys[] keys;
+    private final EnumSet<Keys> keysDown = EnumSet.noneOf(Keys.class);
+    private final EnumSet<Keys> keysPressed = EnumSet.noneOf(Keys.class);
+    private final EnumSet<MouseButtons> buttonsDown = EnumSet.noneOf(MouseButtons.class);
+    private double mouseX;
+    private double mouseY;
+    private int tick = 0;
+    private int expectedChecksum;
+    private Keyframe keyframe;
+
+    /**
+     * Opens an input log and reads its header.
+     * @param stream The log; it is closed by {@link #close()}.
+     * @throws IOException If the log cannot be read or is not an input log of a supported version.
+     */
+    public ReplayInput(InputStream stream) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != InputRecorder.MAGIC) {
+            throw new IOException("Not an input log");
+        }
+        short version = in.readShort();
+        if (version != InputRecorder.VERSION) {
+            throw new IOException("Unsupported input log version: " + version);
+        }
+        tickRate = in.readDouble();
+        in.readInt();   // the keyframe interval, only needed by readers that skip through the log
+        keys = new Keys[in.readUnsignedByte()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = Keys.valueOf(in.readUTF());
+        }
+    }
+
+    /**
+     * Loads the input of the next recorded tick.
+     * @return True if a tick was loaded, false at the end of the log.
+     * @throws IOException If the log cannot be read.
+     */
+    public boolean next() throws IOException {
+        int flags = in.read();
+        if (flags < 0) {
+            return false;
+        }
+        try {
+            buttonsDown.clear();
+            for (int i = 0; i < InputRecorder.RECORDED_BUTTONS.length; i++) {
+                if ((flags & 1 << i) != 0) {
+                    buttonsDown.add(InputRecorder.RECORDED_BUTTONS[i]);
+                }
+            }
+            readKeys(in.readUnsignedShort(), keysDown);
+            readKeys(in.readUnsignedShort(), keysPressed);
+            if ((flags & InputRecorder.MOUSE_MOVED_FLAG) != 0) {
+                mouseX = in.readDouble();
+                mouseY = in.readDouble();
+            }
+            expectedChecksum = in.readInt();
+            tick++;
+            keyframe = (flags & InputRecorder.KEYFRAME_FLAG) != 0 ? Keyframe.read(in, tick) : null;
+        } catch (EOFException ex) {
+            // the game was killed while writing the last record
+            return false;
+        }
+        return true;
+    }
+
+    private void readKeys(int bits, EnumSet<Keys> result) {
+        result.clear();
+        for (int i = 0; i < keys.length; i++) {
+            if ((bits & 1 << i) != 0) {
+                result.add(keys[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the tick rate the log was recorded at.
+     * @return The ticks per second.
+     */
+    public double getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Returns the number of ticks loaded so far.
+     * @return The number of the current tick, counted from 1.
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the state checksum the recorded game had after the current tick.
+     * @return The recorded checksum.
+     */
+    public int getExpectedChecksum() {
+        return expectedChecksum;
+    }
+
+    /**
+     * Returns the keyframe recorded after the current tick.
+     * @return The keyframe, or null if the current tick has none.
+     */
+    public Keyframe getKeyframe() {
+        return keyframe;
+    }
+
+    /**
+     * Closes the log.
+     * @throws IOException If closing fails.
+     */
+    public void close() throws IOException {
+        in.close();
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return keysDown.contains(key);
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return keysPressed.contains(key);
+    }
+
+    @Override
+    public boolean isDown(MouseButtons button) {
+        return buttonsDown.contains(button);
+    }
+
+    @Override
+    public double getMouseX() {
+        return mouseX;
+    }
+
+    @Override
+    public double getMouseY() {
+        return mouseY;
+    }
+
+    @Override
+    public Point getMousePosition() {
+        return new Point(mouseX, mouseY);
+    }
+}
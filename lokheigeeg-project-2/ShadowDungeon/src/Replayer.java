@@ -0,0 +1,80 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Replays an input log written by {@link InputRecorder} headless and as fast as possible, checking after every tick
+ * that the game state still matches the recorded one. A recorded play session thereby doubles as a regression test
+ * and as a benchmark workload.
+ */
+public class Replayer {
+    /**
+     * Replays a log and reports the tick rate reached and the first tick where the game diverged, if any.
+     * Exits with status 1 if the replay diverged.
+     * @param args The path of the log, then optionally the tick to stop after.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: Replayer <input log> [ticks]");
+            System.exit(2);
+        }
+        int maxTicks = args.length > 1 ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+
+        try {
+            ReplayInput input = new ReplayInput(new FileInputStream(args[0]));
+            Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
+            Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
+            // every rate that depends on the tick rate must match the recorded game
+            gameProps.setProperty("simulation.tickRate", String.valueOf(input.getTickRate()));
+            ShadowDungeon.init(gameProps, messageProps);
+
+            boolean diverged = replay(input, maxTicks);
+            input.close();
+            System.exit(diverged ? 1 : 0);
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            System.exit(-1);
+        }
+    }
+
+    // runs the log, reporting the first tick whose state differs from the recording
+    private static boolean replay(ReplayInput input, int maxTicks) throws IOException {
+        int divergedAt = 0;
+        Keyframe lastGoodKeyframe = null;
+        long start = System.nanoTime();
+        while (input.getTick() < maxTicks && input.next()) {
+            ShadowDungeon.tick(input);
+            if (divergedAt == 0 && ShadowDungeon.checksum() != input.getExpectedChecksum()) {
+                divergedAt = input.getTick();
+            }
+
+            Keyframe recorded = input.getKeyframe();
+            if (recorded == null) {
+                continue;
+            }
+            Keyframe actual = Keyframe.capture(input.getTick());
+            if (divergedAt == 0) {
+                lastGoodKeyframe = actual;
+            } else if (!recorded.equals(actual)) {
+                // the first keyframe after the divergence shows what went wrong
+                System.out.println("Diverged at tick " + divergedAt + ", last matching keyframe: "
+                        + (lastGoodKeyframe == null ? "none" : lastGoodKeyframe));
+                System.out.println("  recorded " + recorded);
+                System.out.println("  replayed " + actual);
+                break;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int ticks = input.getTick();
+
+        System.out.printf("%d ticks in %.3f s (%.0f ticks/s, %.0fx real time), ended in room %s%n",
+                ticks, seconds, ticks / seconds, ticks / input.getTickRate() / seconds,
+                ShadowDungeon.getCurrRoomName());
+        if (divergedAt != 0) {
+            System.out.println("Replay diverged from the recording at tick " + divergedAt);
+            return true;
+        }
+        System.out.println("Replay matches the recording");
+        return false;
+    }
+}
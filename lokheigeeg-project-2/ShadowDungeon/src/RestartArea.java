@@ -1,5 +1,3 @@
-import bagel.Image;
-import bagel.Input;
 import bagel.Keys;
 import bagel.util.Point;
 
@@ -8,7 +6,8 @@ import bagel.util.Point;
  */
 public class RestartArea {
     private final Point position;
-    private final Image image;
+    private final Sprite image;
+    private final BoundingBox box;
 
     /**
      * Creates a RestartArea at the specified position.
@@ -16,24 +15,28 @@ public class RestartArea {
      */
     public RestartArea(Point position) {
         this.position = position;
-        this.image = new Image("res/restart_area.png");
+        this.image = Assets.getSprite("res/restart_area.png");
+        this.box = new BoundingBox(image, position.x, position.y);
     }
     /**
      * Updates the restart area and resets the game if the player overlaps and presses ENTER.
      * @param input The current keyboard input.
      * @param player The player interacting with the area.
+     * @return True if the game was reset, otherwise false.
      */
-    public void update(Input input, Player player) {
+    public boolean update(GameInput input, Player player) {
         if (hasCollidedWith(player) && input.wasPressed(Keys.ENTER)) {
-            ShadowDungeon.resetGameState(ShadowDungeon.getGameProps());
+            ShadowDungeon.resetGameState();
+            return true;
         }
+        return false;
     }
 
     /**
      * Draws the restart area on the screen.
      */
     public void draw() {
-        image.draw(position.x, position.y);
+        image.draw(position.x, position.y, SpriteBatch.Layer.FURNITURE);
     }
 
     /**
@@ -42,6 +45,6 @@ public class RestartArea {
      * @return true if the player's bounding box intersects the restart area; otherwise false.
      */
     public boolean hasCollidedWith(Player player) {
-        return image.getBoundingBoxAt(position).intersects(player.getCurrImage().getBoundingBoxAt(player.getPosition()));
+        return box.intersects(player.getBoundingBox());
     }
 }
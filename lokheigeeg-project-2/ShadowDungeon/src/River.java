@@ -1,4 +1,3 @@
-import bagel.Image;
 import bagel.util.Point;
 
 /**
@@ -6,7 +5,8 @@ import bagel.util.Point;
  */
 public class River{
     private final Point position;
-    private final Image image;
+    private final Sprite image;
+    private final BoundingBox box;
     private final double damagePerFrame;
     /**
      * Creates a River hazard at the specified position.
@@ -14,8 +14,9 @@ public class River{
      */
     public River(Point position) {
         this.position = position;
-        this.image = new Image("res/river.png");
-        damagePerFrame = Double.parseDouble(ShadowDungeon.getGameProps().getProperty("riverDamagePerFrame"));
+        this.image = Assets.getSprite("res/river.png");
+        this.box = new BoundingBox(image, position.x, position.y);
+        damagePerFrame = GameClock.perTick(ShadowDungeon.getConfig().riverDamagePerFrame);
     }
     /**
      * Updates the river state and applies damage if the player is overlapping and not immune.
@@ -30,7 +31,7 @@ public class River{
      * Draws the river on the screen.
      */
     public void draw() {
-        image.draw(position.x, position.y);
+        image.draw(position.x, position.y, SpriteBatch.Layer.TERRAIN);
     }
     /**
      * Checks if the player has collided with this river.
@@ -38,6 +39,14 @@ public class River{
      * @return true if the player overlaps with the river; otherwise false.
      */
     public boolean hasCollidedWith(Player player) {
-        return image.getBoundingBoxAt(position).intersects(player.getCurrImage().getBoundingBoxAt(player.getPosition()));
+        return box.intersects(player.getBoundingBox());
+    }
+
+    /**
+     * Returns the bounding box of the river.
+     * @return The bounding box of the river.
+     */
+    public BoundingBox getBoundingBox() {
+        return box;
     }
 }
\ No newline at end of file
@@ -1,14 +1,12 @@
-import bagel.Image;
 import bagel.util.Point;
 /**
  * Represents the Robot player character who earns extra coins per enemy kill.
  */
 public class Robot extends Player{
 
-    private static final Image RIGHT_IMAGE = new Image("res/robot_right.png");
-    private static final Image LEFT_IMAGE = new Image("res/robot_left.png");
-    private double extraCoin = Double.parseDouble(ShadowDungeon.getGameProps().getProperty
-            ("robotExtraCoin"));
+    private static final Sprite RIGHT_IMAGE = Assets.getSprite("res/robot_right.png");
+    private static final Sprite LEFT_IMAGE = Assets.getSprite("res/robot_left.png");
+    private double extraCoin = ShadowDungeon.getConfig().robotExtraCoin;
 
     /**
      * Creates a new Robot at the specified position.
@@ -16,7 +14,7 @@ public class Robot extends Player{
      */
     public Robot(Point position){
         super(position);
-        this.currImage = RIGHT_IMAGE;
+        setCurrImage(RIGHT_IMAGE);
     }
     /**
      * Applies the Robot’s perk when defeating an enemy by adding bonus coins.
@@ -33,8 +31,8 @@ public class Robot extends Player{
      */
     @Override
     public void draw() {
-        currImage = faceLeft ? LEFT_IMAGE : RIGHT_IMAGE; // NOTE: this is an example of using the ternary operator
-        currImage.draw(position.x, position.y);
+        setCurrImage(faceLeft ? LEFT_IMAGE : RIGHT_IMAGE); // NOTE: this is an example of using the ternary operator
+        currImage.draw(GameClock.lerp(lastTickX, x), GameClock.lerp(lastTickY, y), SpriteBatch.Layer.PLAYER);
         UserInterface.drawStats(health, coins,keys, weaponStat);
     }
 
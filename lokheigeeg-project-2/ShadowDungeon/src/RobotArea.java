@@ -1,4 +1,3 @@
-import bagel.Image;
 import bagel.util.Point;
 
 /**
@@ -6,21 +5,21 @@ import bagel.util.Point;
  */
 public class RobotArea {
     private final Point position;
-    private final Image image;
+    private final Sprite image;
     /**
      * Creates a RobotArea at the specified position.
      * @param position The position of the Robot area.
      */
     public RobotArea(Point position) {
         this.position = position;
-        this.image = new Image("res/robot_sprite.png");
+        this.image = Assets.getSprite("res/robot_sprite.png");
     }
 
     /**
      * Draws the Robot area image on the screen.
      */
     public void draw() {
-        image.draw(position.x, position.y);
+        image.draw(position.x, position.y, SpriteBatch.Layer.FURNITURE);
     }
 
 
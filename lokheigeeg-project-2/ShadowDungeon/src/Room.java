@@ -0,0 +1,62 @@
+/**
+ * A room of the dungeon, loaded by the {@link RoomGraph} when the player can reach it.
+ */
+public interface Room {
+    /**
+     * Builds the room's objects from its layout.
+     * @param config The game configuration holding the layout of this room.
+     */
+    void initEntities(GameConfig config);
+
+    /**
+     * Puts the room back in its state at the start of the game, keeping the objects built by initEntities.
+     */
+    void reset();
+
+    /**
+     * Updates all objects in the room for this tick.
+     * @param input The current input state.
+     */
+    void update(GameInput input);
+
+    /**
+     * Renders the room and all of its objects.
+     */
+    void draw();
+
+    /**
+     * Sets the player instance for this room.
+     * @param player The player currently in this room.
+     */
+    void setPlayer(Player player);
+
+    /**
+     * Requests this room to stop updating after the current call.
+     */
+    void stopCurrentUpdateCall();
+
+    /**
+     * Prepares the door the player arrives through when entering from another room.
+     * @param fromRoomName The name of the room the player comes from.
+     * @return The door to place the player at.
+     */
+    Door enterFrom(String fromRoomName);
+
+    /**
+     * Records what the player changed in this room, before the room is unloaded.
+     * @return The saved state, or null if the room should come back as it started.
+     */
+    RoomState save();
+
+    /**
+     * Applies a state saved by {@link #save()} to this freshly built room.
+     * @param state The saved state.
+     */
+    void restore(RoomState state);
+
+    /**
+     * Adds the state of this room's objects to a checksum.
+     * @param checksum The checksum to add to.
+     */
+    void addTo(Checksum checksum);
+}
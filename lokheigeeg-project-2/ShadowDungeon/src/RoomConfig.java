@@ -0,0 +1,255 @@
+import bagel.util.Point;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Parsed layout of one room: where each of its game objects is placed.
+ * Entries that a room does not have are null or empty lists.
+ * A layout is read either from the game properties or from a room section of a compiled {@link LevelFile}.
+ */
+public class RoomConfig {
+    /** Property key prefixes of the game objects that are placed per room. */
+    public static final String[] OBJECT_TYPES = {"door", "primarydoor", "secondarydoor", "restartarea", "bulletKin",
+            "ashenBulletKin", "keyBulletKin", "wall", "table", "basket", "river", "treasurebox", "size", "chaserKin"};
+    private static final String NONE = "0";
+
+    /**
+     * A door position and the room it leads to.
+     */
+    public static class DoorPlacement {
+        /** Position of the door. */
+        public final Point position;
+        /** Name of the room the door leads to. */
+        public final String toRoomName;
+
+        /**
+         * Creates a door placement.
+         * @param position The position of the door.
+         * @param toRoomName The name of the room the door leads to.
+         */
+        public DoorPlacement(Point position, String toRoomName) {
+            this.position = position;
+            this.toRoomName = toRoomName;
+        }
+    }
+
+    /**
+     * A treasure box position and the coins it holds.
+     */
+    public static class TreasurePlacement {
+        /** Position of the treasure box. */
+        public final Point position;
+        /** Coins awarded when the box is opened. */
+        public final double coinValue;
+
+        /**
+         * Creates a treasure box placement.
+         * @param position The position of the treasure box.
+         * @param coinValue The coins awarded when the box is opened.
+         */
+        public TreasurePlacement(Point position, double coinValue) {
+            this.position = position;
+            this.coinValue = coinValue;
+        }
+    }
+
+    /** Name of the room. */
+    public final String name;
+    /** The only door of a prep or end room. */
+    public final DoorPlacement door;
+    /** The primary door of a battle room. */
+    public final DoorPlacement primaryDoor;
+    /** The secondary door of a battle room. */
+    public final DoorPlacement secondaryDoor;
+    /** Position of the restart area. */
+    public final Point restartArea;
+    /** Positions of the BulletKins. */
+    public final List<Point> bulletKins;
+    /** Positions of the AshenBulletKins. */
+    public final List<Point> ashenBulletKins;
+    /** Patrol route of the KeyBulletKin, starting at its spawn point. */
+    public final List<Point> keyBulletKinRoute;
+    /** Positions of the ChaserKins. */
+    public final List<Point> chaserKins;
+    /** Positions of the wall tiles. */
+    public final List<Point> walls;
+    /** Positions of the river tiles. */
+    public final List<Point> rivers;
+    /** Position of the table. */
+    public final Point table;
+    /** Position of the basket. */
+    public final Point basket;
+    /** Treasure boxes and their rewards. */
+    public final List<TreasurePlacement> treasureBoxes;
+    /** Width and height of the room, or null if it is the size of the window. */
+    public final Point size;
+
+    /**
+     * Parses the layout of a room from the game properties (keys such as "wall.A").
+     * @param name The name of the room.
+     * @param gameProps The game configuration properties.
+     */
+    public RoomConfig(String name, Properties gameProps) {
+        this.name = name;
+        this.door = parseDoor(value(gameProps, "door"));
+        this.primaryDoor = parseDoor(value(gameProps, "primarydoor"));
+        this.secondaryDoor = parseDoor(value(gameProps, "secondarydoor"));
+        this.restartArea = parsePoint(value(gameProps, "restartarea"));
+        this.bulletKins = parsePoints(value(gameProps, "bulletKin"));
+        this.ashenBulletKins = parsePoints(value(gameProps, "ashenBulletKin"));
+        this.keyBulletKinRoute = parsePoints(value(gameProps, "keyBulletKin"));
+        this.walls = parsePoints(value(gameProps, "wall"));
+        this.rivers = parsePoints(value(gameProps, "river"));
+        this.table = parsePoint(value(gameProps, "table"));
+        this.basket = parsePoint(value(gameProps, "basket"));
+
+        List<TreasurePlacement> boxes = new ArrayList<>();
+        String treasure = value(gameProps, "treasurebox");
+        if (treasure != null) {
+            for (String coords : treasure.split(";")) {
+                boxes.add(new TreasurePlacement(IOUtils.parseCoords(coords), Double.parseDouble(coords.split(",")[2])));
+            }
+        }
+        this.treasureBoxes = Collections.unmodifiableList(boxes);
+        this.size = parsePoint(value(gameProps, "size"));
+        this.chaserKins = parsePoints(value(gameProps, "chaserKin"));
+    }
+
+    /**
+     * Reads the layout of a room from its section of a compiled level file, without parsing any text.
+     * The section holds one block per object type, in the order of {@link #OBJECT_TYPES}: the number of objects,
+     * then one fixed-width record per object. Points are two doubles, doors add the name table index of the room they
+     * lead to as an int, and treasure boxes add their coin value as a double. The room's size follows them, as a
+     * point, and the ChaserKins come last.
+     * @param name The name of the room.
+     * @param section The room's section of the level file, positioned at its start.
+     * @param names The name table of the level file.
+     */
+    public RoomConfig(String name, ByteBuffer section, String[] names) {
+        this.name = name;
+        this.door = readDoor(section, names);
+        this.primaryDoor = readDoor(section, names);
+        this.secondaryDoor = readDoor(section, names);
+        this.restartArea = readPoint(section);
+        this.bulletKins = readPoints(section);
+        this.ashenBulletKins = readPoints(section);
+        this.keyBulletKinRoute = readPoints(section);
+        this.walls = readPoints(section);
+        this.table = readPoint(section);
+        this.basket = readPoint(section);
+        this.rivers = readPoints(section);
+
+        TreasurePlacement[] boxes = new TreasurePlacement[section.getInt()];
+        for (int i = 0; i < boxes.length; i++) {
+            boxes[i] = new TreasurePlacement(new Point(section.getDouble(), section.getDouble()), section.getDouble());
+        }
+        this.treasureBoxes = Collections.unmodifiableList(Arrays.asList(boxes));
+        this.size = readPoint(section);
+        this.chaserKins = readPoints(section);
+    }
+
+    /**
+     * Writes this layout as a room section of a compiled level file, in the format read by the constructor above.
+     * @param out The stream to write to.
+     * @param nameIndex The index of each room name in the level file's name table.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void write(DataOutputStream out, Map<String, Integer> nameIndex) throws IOException {
+        writeDoor(out, door, nameIndex);
+        writeDoor(out, primaryDoor, nameIndex);
+        writeDoor(out, secondaryDoor, nameIndex);
+        writePoints(out, restartArea == null ? List.of() : List.of(restartArea));
+        writePoints(out, bulletKins);
+        writePoints(out, ashenBulletKins);
+        writePoints(out, keyBulletKinRoute);
+        writePoints(out, walls);
+        writePoints(out, table == null ? List.of() : List.of(table));
+        writePoints(out, basket == null ? List.of() : List.of(basket));
+        writePoints(out, rivers);
+
+        out.writeInt(treasureBoxes.size());
+        for (TreasurePlacement treasure : treasureBoxes) {
+            out.writeDouble(treasure.position.x);
+            out.writeDouble(treasure.position.y);
+            out.writeDouble(treasure.coinValue);
+        }
+        writePoints(out, size == null ? List.of() : List.of(size));
+        writePoints(out, chaserKins);
+    }
+
+    private static DoorPlacement readDoor(ByteBuffer section, String[] names) {
+        if (section.getInt() == 0) {
+            return null;
+        }
+        return new DoorPlacement(new Point(section.getDouble(), section.getDouble()), names[section.getInt()]);
+    }
+
+    private static Point readPoint(ByteBuffer section) {
+        return section.getInt() == 0 ? null : new Point(section.getDouble(), section.getDouble());
+    }
+
+    private static List<Point> readPoints(ByteBuffer section) {
+        int count = section.getInt();
+        // copy all coordinates out in one go rather than a double at a time
+        double[] coordinates = new double[count * 2];
+        section.asDoubleBuffer().get(coordinates);
+        section.position(section.position() + coordinates.length * Double.BYTES);
+
+        Point[] points = new Point[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = new Point(coordinates[i * 2], coordinates[i * 2 + 1]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(points));
+    }
+
+    private static void writeDoor(DataOutputStream out, DoorPlacement door, Map<String, Integer> nameIndex)
+            throws IOException {
+        if (door == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(1);
+        out.writeDouble(door.position.x);
+        out.writeDouble(door.position.y);
+        out.writeInt(nameIndex.get(door.toRoomName));
+    }
+
+    private static void writePoints(DataOutputStream out, List<Point> points) throws IOException {
+        out.writeInt(points.size());
+        for (Point point : points) {
+            out.writeDouble(point.x);
+            out.writeDouble(point.y);
+        }
+    }
+
+    private String value(Properties gameProps, String objectType) {
+        String value = gameProps.getProperty(objectType + "." + name);
+        return value == null || value.equals(NONE) ? null : value;
+    }
+
+    private static DoorPlacement parseDoor(String value) {
+        return value == null ? null : new DoorPlacement(IOUtils.parseCoords(value), value.split(",")[2]);
+    }
+
+    private static Point parsePoint(String value) {
+        return value == null ? null : IOUtils.parseCoords(value);
+    }
+
+    private static List<Point> parsePoints(String value) {
+        List<Point> points = new ArrayList<>();
+        if (value != null) {
+            for (String coords : value.split(";")) {
+                points.add(IOUtils.parseCoords(coords));
+            }
+        }
+        return Collections.unmodifiableList(points);
+    }
+}
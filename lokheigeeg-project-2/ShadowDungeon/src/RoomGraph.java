@@ -0,0 +1,379 @@
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The rooms of the dungeon as a graph built from the door data: every room with a layout gets an integer id, and
+ * the doors leading out of it are its edges.
+ * <p>
+ * Only the rooms within a few doors of the player are loaded. A room is built on a background thread when the player
+ * comes within reach of it or walks up to a door leading to it, and handed over to the game between ticks, so
+ * crossing a door never waits for a room to be built unless the player outruns the builder. A room is unloaded
+ * when the player moves out of reach, keeping just the {@link RoomState} it saves. The rooms around the start room
+ * stay loaded, so a restart resets them in place.
+ * <p>
+ * A background build only reads the configuration and registers sprites. If an image a room needs cannot be read,
+ * the build fails instead of ending the game from the builder thread; the failure is raised when the game thread
+ * adopts the room, between ticks, where it prints the error and exits like any other unreadable resource. A room
+ * built on the game thread, because the player reached it before a background build was started, fails the same
+ * way.
+ * A room's kind follows from its layout: the start room is the prep room, other rooms with a single door are end
+ * rooms and rooms with a primary and secondary door are battle rooms, so adding a room takes only its layout.
+ */
+public class RoomGraph {
+    private static final ExecutorService BUILDER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "room-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GameConfig config;
+    private final String startRoomName;
+    private final String[] names;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final int[][] neighbours;
+    private final int loadRadius;
+    private final boolean[] pinned;     // the rooms around the start room, which are never unloaded
+    private final Room[] rooms;
+    private final RoomState[] saved;
+    private int[] loaded = new int[16];
+    private int loadedCount = 0;
+    private final List<Future<Room>> builds = new ArrayList<>();    // rooms being built in the background
+    private int[] buildRooms = new int[16];                         // and the ids of those rooms
+
+    // the breadth-first search around the player, reused between searches
+    private final int[] distance;
+    private final int[] visited;
+    private final int[] queue;
+    private int search = 0;
+
+    /**
+     * Builds the graph of the rooms in a configuration, without loading any room.
+     * @param config The game configuration holding the room layouts.
+     * @param startRoomName The name of the room the game starts in.
+     * @param loadRadius How many doors away from the player rooms are kept loaded.
+     */
+    public RoomGraph(GameConfig config, String startRoomName, int loadRadius) {
+        this.config = config;
+        this.startRoomName = startRoomName;
+        this.loadRadius = loadRadius;
+        Map<String, RoomConfig> layouts = config.getRooms();
+        if (!layouts.containsKey(startRoomName)) {
+            throw new IllegalArgumentException("No layout for the start room: " + startRoomName);
+        }
+
+        // number the rooms in the order they are reached from the start room, then any unreachable ones by name
+        List<String> order = new ArrayList<>();
+        order.add(startRoomName);
+        ids.put(startRoomName, 0);
+        for (int i = 0; i < order.size(); i++) {
+            for (String next : doorsOf(layouts.get(order.get(i)))) {
+                if (layouts.containsKey(next) && !ids.containsKey(next)) {
+                    ids.put(next, order.size());
+                    order.add(next);
+                }
+            }
+        }
+        List<String> unreachable = new ArrayList<>(layouts.keySet());
+        unreachable.removeAll(ids.keySet());
+        Collections.sort(unreachable);
+        for (String name : unreachable) {
+            ids.put(name, order.size());
+            order.add(name);
+        }
+        names = order.toArray(new String[0]);
+
+        neighbours = new int[names.length][];
+        for (int room = 0; room < names.length; room++) {
+            List<String> doors = doorsOf(layouts.get(names[room]));
+            neighbours[room] = new int[doors.size()];
+            for (int i = 0; i < doors.size(); i++) {
+                Integer next = ids.get(doors.get(i));
+                if (next == null) {
+                    throw new IllegalArgumentException("A door of room " + names[room]
+                            + " leads to a room with no layout: " + doors.get(i));
+                }
+                neighbours[room][i] = next;
+            }
+        }
+
+        rooms = new Room[names.length];
+        saved = new RoomState[names.length];
+        distance = new int[names.length];
+        visited = new int[names.length];
+        queue = new int[names.length];
+        pinned = new boolean[names.length];
+        int reached = searchAround(getStartRoom());
+        for (int i = 0; i < reached; i++) {
+            pinned[queue[i]] = true;
+        }
+    }
+
+    private static List<String> doorsOf(RoomConfig layout) {
+        List<String> doors = new ArrayList<>(2);
+        for (RoomConfig.DoorPlacement door : new RoomConfig.DoorPlacement[] {layout.door, layout.primaryDoor,
+                layout.secondaryDoor}) {
+            if (door != null) {
+                doors.add(door.toRoomName);
+            }
+        }
+        return doors;
+    }
+
+    /**
+     * Makes a room the player's room: loads it, starts building the rooms now within reach of it in the background,
+     * and unloads the rooms now out of reach, saving their state.
+     * @param room The id of the room.
+     * @return The room.
+     */
+    public Room enter(int room) {
+        int reached = searchAround(room);
+        for (int i = loadedCount - 1; i >= 0; i--) {
+            int id = loaded[i];
+            if (visited[id] != search && !pinned[id]) {
+                unload(i);
+            }
+        }
+        load(room);
+        for (int i = 1; i < reached; i++) {
+            prefetch(queue[i]);
+        }
+        return rooms[room];
+    }
+
+    /**
+     * Starts building a room in the background unless it is loaded or being built already.
+     * @param roomName The name of the room.
+     */
+    public void prefetch(String roomName) {
+        prefetch(idOf(roomName));
+    }
+
+    /**
+     * Starts building a room in the background unless it is loaded or being built already.
+     * @param room The id of the room.
+     */
+    public void prefetch(int room) {
+        if (rooms[room] != null || buildIndexOf(room) != -1) {
+            return;
+        }
+        FrameProfiler.markUnsteady();
+        if (builds.size() == buildRooms.length) {
+            buildRooms = Arrays.copyOf(buildRooms, buildRooms.length * 2);
+        }
+        buildRooms[builds.size()] = room;
+        builds.add(BUILDER.submit(() -> build(room)));
+    }
+
+    /**
+     * Hands the rooms finished in the background over to the game. Call between ticks, on the game's thread.
+     */
+    public void adoptBuilt() {
+        for (int i = builds.size() - 1; i >= 0; i--) {
+            if (builds.get(i).isDone()) {
+                adopt(i);
+            }
+        }
+    }
+
+    private int buildIndexOf(int room) {
+        for (int i = 0; i < builds.size(); i++) {
+            if (buildRooms[i] == room) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // takes a finished build, waiting for it if it is still running
+    private void adopt(int build) {
+        int room = buildRooms[build];
+        Room builtRoom;
+        try {
+            builtRoom = builds.get(build).get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException) {
+                exitOnUnreadableImage(names[room], (UncheckedIOException) ex.getCause());
+            }
+            throw new IllegalStateException("Could not build room " + names[room], ex);
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException("Could not build room " + names[room], ex);
+        }
+        int last = builds.size() - 1;
+        builds.set(build, builds.get(last));
+        buildRooms[build] = buildRooms[last];
+        builds.remove(last);
+        add(room, builtRoom);
+        Assets.warmTextures();
+    }
+
+    /**
+     * Puts every loaded room back in its state at the start of the game and forgets the state of unloaded ones.
+     * Entering the start room afterwards unloads the rest.
+     */
+    public void reset() {
+        Arrays.fill(saved, null);
+        for (int i = 0; i < loadedCount; i++) {
+            rooms[loaded[i]].reset();
+        }
+    }
+
+    // finds the rooms at most loadRadius doors from a room, returning how many the queue holds
+    private int searchAround(int from) {
+        search++;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        visited[from] = search;
+        distance[from] = 0;
+        while (head < tail) {
+            int room = queue[head++];
+            if (distance[room] == loadRadius) {
+                continue;
+            }
+            for (int next : neighbours[room]) {
+                if (visited[next] != search) {
+                    visited[next] = search;
+                    distance[next] = distance[room] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    // makes sure a room is loaded, building it on this thread if no background build was started
+    private void load(int room) {
+        if (rooms[room] != null) {
+            return;
+        }
+        int build = buildIndexOf(room);
+        if (build != -1) {
+            adopt(build);
+        } else {
+            Room builtRoom = null;
+            try {
+                builtRoom = build(room);
+            } catch (UncheckedIOException ex) {
+                exitOnUnreadableImage(names[room], ex);
+            }
+            add(room, builtRoom);
+        }
+    }
+
+    // ends the game on the game thread when a room needs an image that cannot be read
+    private static void exitOnUnreadableImage(String roomName, UncheckedIOException ex) {
+        System.err.println("Could not build room " + roomName);
+        ex.printStackTrace();
+        System.exit(-1);
+    }
+
+    // runs on the builder thread, so it only reads the configuration and registers sprites, and any failure to read
+    // an image is left to the game thread
+    private Room build(int room) {
+        String name = names[room];
+        Room builtRoom;
+        if (name.equals(startRoomName)) {
+            builtRoom = new PrepRoom(name);
+        } else if (config.getRoom(name).door != null) {
+            builtRoom = new EndRoom(name);
+        } else {
+            builtRoom = new BattleRoom(name);
+        }
+        builtRoom.initEntities(config);
+        return builtRoom;
+    }
+
+    // the saved state is applied here, on the game's thread, as the game may save it while the room is being built
+    private void add(int room, Room builtRoom) {
+        FrameProfiler.markUnsteady();
+        if (saved[room] != null) {
+            builtRoom.restore(saved[room]);
+            saved[room] = null;
+        }
+        rooms[room] = builtRoom;
+        if (loadedCount == loaded.length) {
+            loaded = Arrays.copyOf(loaded, loadedCount * 2);
+        }
+        loaded[loadedCount++] = room;
+    }
+
+    private void unload(int slot) {
+        int room = loaded[slot];
+        saved[room] = rooms[room].save();
+        rooms[room] = null;
+        loaded[slot] = loaded[--loadedCount];
+    }
+
+    /**
+     * Returns the id of a room.
+     * @param roomName The name of the room.
+     * @return The room's id.
+     */
+    public int idOf(String roomName) {
+        Integer id = ids.get(roomName);
+        if (id == null) {
+            throw new IllegalArgumentException("No such room: " + roomName);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the name of a room.
+     * @param room The id of the room.
+     * @return The room's name.
+     */
+    public String nameOf(int room) {
+        return names[room];
+    }
+
+    /**
+     * Returns the id of the room the game starts in.
+     * @return The start room's id.
+     */
+    public int getStartRoom() {
+        return 0;
+    }
+
+    /**
+     * Returns the rooms the doors of a room lead to.
+     * @param room The id of the room.
+     * @return The ids of the neighbouring rooms; the array must not be changed.
+     */
+    public int[] neighboursOf(int room) {
+        return neighbours[room];
+    }
+
+    /**
+     * Returns a room if it is loaded.
+     * @param room The id of the room.
+     * @return The room, or null if it is not loaded.
+     */
+    public Room get(int room) {
+        return rooms[room];
+    }
+
+    /**
+     * Returns the number of rooms in the graph.
+     * @return The number of rooms.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Returns the number of rooms currently loaded.
+     * @return The number of loaded rooms.
+     */
+    public int loadedCount() {
+        return loadedCount;
+    }
+}
@@ -0,0 +1,56 @@
+import java.util.Arrays;
+
+/**
+ * What is left of a cleared battle room once it is unloaded: which of its breakables are broken and which keys and
+ * treasure boxes are still lying around. Its enemies are all dead and its walls come back from the layout, so this
+ * is all the room needs to be rebuilt as the player left it.
+ */
+public class RoomState {
+    /** Whether the basket was broken. */
+    public final boolean basketDestroyed;
+    /** Whether the table was broken. */
+    public final boolean tableDestroyed;
+    private final Sprite[] pickupSprites;
+    private final double[] pickupX;
+    private final double[] pickupY;
+    private final boolean[] pickupLocked;
+    private final int[] pickupKeys;
+    private final double[] pickupCoins;
+
+    /**
+     * Records the state of a cleared battle room.
+     * @param basketDestroyed Whether the basket was broken.
+     * @param tableDestroyed Whether the table was broken.
+     * @param world The room's entities, of which only the pickups are kept.
+     */
+    public RoomState(boolean basketDestroyed, boolean tableDestroyed, World world) {
+        this.basketDestroyed = basketDestroyed;
+        this.tableDestroyed = tableDestroyed;
+        PickupStore pickups = world.pickups;
+        BodyStore bodies = world.bodies;
+        int count = pickups.size();
+        pickupSprites = new Sprite[count];
+        pickupX = new double[count];
+        pickupY = new double[count];
+        for (int i = 0; i < count; i++) {
+            int body = bodies.slotOf(pickups.entityAt(i));
+            pickupSprites[i] = bodies.sprite[body];
+            pickupX[i] = bodies.x[body];
+            pickupY[i] = bodies.y[body];
+        }
+        pickupLocked = Arrays.copyOf(pickups.locked, count);
+        pickupKeys = Arrays.copyOf(pickups.keys, count);
+        pickupCoins = Arrays.copyOf(pickups.coins, count);
+    }
+
+    /**
+     * Spawns the saved pickups into a world, in the order they were saved.
+     * @param world The world to spawn into.
+     */
+    public void spawnPickups(World world) {
+        for (int i = 0; i < pickupSprites.length; i++) {
+            world.spawnPickup(pickupSprites[i], pickupX[i], pickupY[i], pickupLocked[i], pickupKeys[i],
+                    pickupCoins[i]);
+        }
+    }
+}
@@ -1,35 +1,38 @@
 import bagel.*;
-import bagel.util.Point;
 
 import java.util.Properties;
 
 /**
- * Main game class that manages initialising the rooms and moving the player between rooms
+ * Main game class that manages initialising the rooms and moving the player between rooms.
+ * The rooms and the doors between them come from the room layouts, through a {@link RoomGraph}.
  */
 public class ShadowDungeon extends AbstractGame {
-    /** Global game configuration properties. */
-    public static Properties gameProps;
-    /** Global message/strings configuration properties. */
-    public static Properties messageProps;
+    /** Global game configuration, parsed once at startup. */
+    public static GameConfig config;
     /** Current screen width in pixels. */
     public static double screenWidth;
     /** Current screen height in pixels. */
     public static double screenHeight;
-
-    private static String currRoomName;
-    private static PrepRoom prepRoom;
-    private static BattleRoom battleRoomA;
-    private static BattleRoom battleRoomB;
-    private static EndRoom endRoom;
+    /** Width of the current room in pixels, which is at least the screen width for scrolling rooms. */
+    public static double roomWidth;
+    /** Height of the current room in pixels, which is at least the screen height for scrolling rooms. */
+    public static double roomHeight;
+
+    private static RoomGraph rooms;
+    private static int currRoomId;
+    private static Room currRoom;
     private static Player player;
-    private final Image background;
-    /** Room name for the preparation room. */
+    private static final Checksum STATE_CHECKSUM = new Checksum();
+    private static Sprite background;
+    private static Renderer renderer = new BagelRenderer();
+    private final BagelInput bagelInput = new BagelInput();
+    private final GameClock clock;
+    private InputRecorder recorder;
+    /** Room name for the preparation room, where the game starts. */
     public static final String PREP_ROOM_NAME = "prep";
     /** Room name for battle room A. */
     public static final String BATTLE_ROOM_A_NAME = "A";
-    /** Room name for battle room B. */
-    public static final String BATTLE_ROOM_B_NAME = "B";
-    /** Room name for the ending room. */
+    /** Room name for the ending room, where the player goes on dying. */
     public static final String END_ROOM_NAME = "end";
 
     /**
@@ -42,33 +45,50 @@ public class ShadowDungeon extends AbstractGame {
                 Integer.parseInt(gameProps.getProperty("window.height")),
                 "Shadow Dungeon");
 
-        ShadowDungeon.gameProps = gameProps;
-        ShadowDungeon.messageProps = messageProps;
-        screenWidth = Integer.parseInt(gameProps.getProperty("window.width"));
-        screenHeight = Integer.parseInt(gameProps.getProperty("window.height"));
-        this.background = new Image("res/background.png");
+        // load every texture up front so none is loaded in the middle of gameplay
+        Assets.preload();
+        Assets.loadTextures();
 
-        resetGameState(gameProps);
+        init(gameProps, messageProps);
+        this.clock = new GameClock(GameClock.getTickRate(), config.maxTicksPerFrame);
     }
+
     /**
-     * Resets the entire game state and (re)initialises rooms and player.
-     * @param gameProps Game configuration properties used to set up entities.
+     * Loads the configuration and sets up the game state without opening a window.
+     * @param gameProps Game configuration properties (e.g., window size, assets).
+     * @param messageProps String/message properties for UI text.
      */
-    public static void resetGameState(Properties gameProps) {
-        prepRoom = new PrepRoom();
-        battleRoomA = new BattleRoom(BATTLE_ROOM_A_NAME, BATTLE_ROOM_B_NAME);
-        battleRoomB = new BattleRoom(BATTLE_ROOM_B_NAME, END_ROOM_NAME);
-        endRoom = new EndRoom();
-
-        prepRoom.initEntities(gameProps);
-        battleRoomA.initEntities(gameProps);
-        battleRoomB.initEntities(gameProps);
-        endRoom.initEntities(gameProps);
-
-        currRoomName = PREP_ROOM_NAME;
+    public static void init(Properties gameProps, Properties messageProps) {
+        config = GameConfig.from(gameProps, messageProps);
+        screenWidth = config.windowWidth;
+        screenHeight = config.windowHeight;
+        GameClock.setTickRate(config.tickRate);
+        FrameProfiler.configure(config);
+        GameEvents.register();
+        background = Assets.getSprite("res/background.png");
+
+        rooms = new RoomGraph(config, PREP_ROOM_NAME, config.roomLoadRadius);
+        resetGameState();
+    }
 
-        ShadowDungeon.player = new Player(IOUtils.parseCoords(gameProps.getProperty("player.start")));
-        prepRoom.setPlayer(player);
+    /**
+     * Resets the entire game state: every room goes back to how it started and the player starts over.
+     * The rooms around the start room stay loaded and are reset in place instead of being built again.
+     */
+    public static void resetGameState() {
+        FrameProfiler.markUnsteady();
+        GameEvents.Restart event = new GameEvents.Restart();
+        event.begin();
+        event.from = currRoom == null ? null : getCurrRoomName();
+        rooms.reset();
+        currRoomId = rooms.getStartRoom();
+        currRoom = rooms.enter(currRoomId);
+        setRoomSize();
+
+        ShadowDungeon.player = new Player(config.playerStart);
+        currRoom.setPlayer(player);
+        event.loadedRooms = rooms.loadedCount();
+        event.commit();
     }
 
     /**
@@ -80,126 +100,156 @@ public class ShadowDungeon extends AbstractGame {
         if (input.wasPressed(Keys.ESCAPE)) {
             Window.close();
         }
-
-        background.draw((double) Window.getWidth() / 2, (double) Window.getHeight() / 2);
-
-        switch (currRoomName) {
-            case PREP_ROOM_NAME:
-                prepRoom.update(input);
-                return;
-            case BATTLE_ROOM_A_NAME:
-                battleRoomA.update(input);
-                return;
-            case BATTLE_ROOM_B_NAME:
-                battleRoomB.update(input);
-                return;
-            default:
-                endRoom.update(input);
+        if (input.wasPressed(Keys.F3)) {
+            FrameProfiler.toggle();
         }
+        FrameProfiler.begin(FrameProfiler.Phase.FRAME);
+
+        // run the simulation at a fixed rate, independent of how often frames are rendered
+        bagelInput.setInput(input);
+        int ticks = clock.advance(System.nanoTime());
+        for (int i = 0; i < ticks; i++) {
+            tick(bagelInput);
+            if (recorder != null) {
+                recorder.record(bagelInput, checksum());
+            }
+            bagelInput.nextTick();
+        }
+
+        FrameProfiler.begin(FrameProfiler.Phase.RENDER);
+        render();
+        FrameProfiler.end(FrameProfiler.Phase.RENDER);
+        FrameProfiler.endFrame();
+    }
+
+    /**
+     * Advances the game logic of the current room by one frame, without drawing anything.
+     * @param input The current mouse/keyboard input.
+     */
+    public static void tick(GameInput input) {
+        // between ticks is a safe point to take over the rooms built in the background
+        FrameProfiler.begin(FrameProfiler.Phase.TICK);
+        rooms.adoptBuilt();
+        currRoom.update(input);
+        FrameProfiler.count(FrameProfiler.Count.LOADED_ROOMS, rooms.loadedCount());
+        FrameProfiler.endTick();
+    }
+
+    /**
+     * Computes a checksum of the game state that a tick can change: the current room and the player. The other
+     * rooms only change while the player is in them, and which of them are loaded depends on how fast the
+     * background builds finish, so they are left out. Two runs fed the same input produce the same checksums tick
+     * for tick.
+     * @return The checksum of the current state.
+     */
+    public static int checksum() {
+        STATE_CHECKSUM.reset();
+        STATE_CHECKSUM.add(currRoomId);
+        player.addTo(STATE_CHECKSUM);
+        currRoom.addTo(STATE_CHECKSUM);
+        return STATE_CHECKSUM.get();
+    }
+
+    /**
+     * Draws the background, the current room and its game objects, and the frame timings while they are on,
+     * through the renderer, as one frame.
+     */
+    public static void render() {
+        Camera.follow(GameClock.lerp(player.lastTickX, player.x), GameClock.lerp(player.lastTickY, player.y));
+        background.draw(screenWidth / 2, screenHeight / 2, SpriteBatch.Layer.BACKGROUND);
+        currRoom.draw();
+        SpriteBatch.endFrame();
+        // the overlay is part of the frame it is drawn on, showing the timings up to the previous frame
+        FrameProfiler.drawOverlay();
+        renderer.endFrame();
+    }
+
+    /**
+     * Returns the renderer frames are drawn with.
+     * @return The renderer.
+     */
+    public static Renderer getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * Sets the renderer frames are drawn with, e.g. a {@link RecordingRenderer} to render without a window.
+     * @param newRenderer The renderer.
+     */
+    public static void setRenderer(Renderer newRenderer) {
+        renderer = newRenderer;
     }
 
     /**
      * Changes the current room to the specified destination and moves the player accordingly.
+     * Loads the rooms that come within reach of the player and unloads the ones that fall out of reach.
      * @param roomName The target room name (e.g., "prep", "A", "B", "end").
      */
     public static void changeRoom(String roomName) {
-        Door nextDoor;
-        switch (roomName) {
-            case PREP_ROOM_NAME:
-                nextDoor = prepRoom.findDoorByDestination();
-
-                // assume that prep room can only be entered through Battle Room A
-                if (currRoomName.equals(BATTLE_ROOM_A_NAME)) {
-                    battleRoomA.stopCurrentUpdateCall();
-                }
-                currRoomName = PREP_ROOM_NAME;
-
-                // move the player to the center of the next room's door
-                nextDoor.unlock(true);
-                player.move(nextDoor.getPosition().x, nextDoor.getPosition().y);
-                prepRoom.setPlayer(player);
-
-                return;
-            case BATTLE_ROOM_A_NAME:
-                nextDoor = battleRoomA.findDoorByDestination(currRoomName);
-
-                // assume that Battle Room A can only be entered through Prep Room or Battle Room B
-                if (currRoomName.equals(BATTLE_ROOM_B_NAME)) {
-                    battleRoomB.stopCurrentUpdateCall();
-                } else if (currRoomName.equals(PREP_ROOM_NAME)) {
-                    prepRoom.stopCurrentUpdateCall();
-                }
-                currRoomName = BATTLE_ROOM_A_NAME;
-
-                // prepare the door to be able to activate the Battle Room
-                if (!battleRoomA.isComplete()) {
-                    nextDoor.setShouldLockAgain();
-                }
-
-                // move the player to the center of the next room's door
-                nextDoor.unlock(true);
-                player.move(nextDoor.getPosition().x, nextDoor.getPosition().y);
-                battleRoomA.setPlayer(player);
-
-                return;
-            case BATTLE_ROOM_B_NAME:
-                nextDoor = battleRoomB.findDoorByDestination(currRoomName);
-
-                // assume that Battle Room B can only be entered through Battle Room A or End Room
-                if (currRoomName.equals(BATTLE_ROOM_A_NAME)) {
-                    battleRoomA.stopCurrentUpdateCall();
-                } else if (currRoomName.equals(END_ROOM_NAME)) {
-                    endRoom.stopCurrentUpdateCall();
-                }
-                currRoomName = BATTLE_ROOM_B_NAME;
-
-                // prepare the door to be able to activate the Battle Room
-                if (!battleRoomB.isComplete()) {
-                    nextDoor.setShouldLockAgain();
-                }
-
-                // move the player to the center of the next room's door
-                nextDoor.unlock(true);
-                player.move(nextDoor.getPosition().x, nextDoor.getPosition().y);
-                battleRoomB.setPlayer(player);
-
-                return;
-            default:
-                nextDoor = endRoom.findDoorByDestination();
-
-                // assume that end room can only be entered through Battle Room B
-                if (currRoomName.equals(BATTLE_ROOM_B_NAME)) {
-                    battleRoomB.stopCurrentUpdateCall();
-                }
-                currRoomName = END_ROOM_NAME;
-
-                // move the player to the center of the next room's door
-                nextDoor.unlock(true);
-                player.move(nextDoor.getPosition().x, nextDoor.getPosition().y);
-                endRoom.setPlayer(player);
-        }
+        FrameProfiler.markUnsteady();
+        GameEvents.RoomChange event = new GameEvents.RoomChange();
+        event.begin();
+        int nextRoomId = rooms.idOf(roomName);
+        Room nextRoom = rooms.enter(nextRoomId);
+
+        // the door that was walked through belongs to the current room, whose update stops here
+        currRoom.stopCurrentUpdateCall();
+        event.from = getCurrRoomName();
+        Door nextDoor = nextRoom.enterFrom(event.from);
+        currRoomId = nextRoomId;
+        currRoom = nextRoom;
+        setRoomSize();
+
+        // move the player to the center of the next room's door
+        player.teleport(nextDoor.getPosition().x, nextDoor.getPosition().y);
+        currRoom.setPlayer(player);
+        event.to = roomName;
+        event.loadedRooms = rooms.loadedCount();
+        event.commit();
     }
 
     /**
      * Switches to the game over room and resets the player position.
      */
     public static void changeToGameOverRoom() {
-        switch (currRoomName) {
-            case PREP_ROOM_NAME:
-                prepRoom.stopCurrentUpdateCall();
-            case BATTLE_ROOM_A_NAME:
-                battleRoomA.stopCurrentUpdateCall();
-            case BATTLE_ROOM_B_NAME:
-                battleRoomB.stopCurrentUpdateCall();
-            default:
-        }
+        FrameProfiler.markUnsteady();
+        GameEvents.RoomChange event = new GameEvents.RoomChange();
+        event.begin();
+        event.from = getCurrRoomName();
+        currRoom.stopCurrentUpdateCall();
+        currRoomId = rooms.idOf(END_ROOM_NAME);
+        currRoom = rooms.enter(currRoomId);
+        setRoomSize();
+        ((EndRoom) currRoom).isGameOver();
+
+        player.teleport(config.playerStart.x, config.playerStart.y);
+        currRoom.setPlayer(player);
+        event.to = END_ROOM_NAME;
+        event.gameOver = true;
+        event.loadedRooms = rooms.loadedCount();
+        event.commit();
+    }
 
-        endRoom.isGameOver();
-        currRoomName = END_ROOM_NAME;
+    private static void setRoomSize() {
+        String roomName = rooms.nameOf(currRoomId);
+        roomWidth = config.getRoomWidth(roomName);
+        roomHeight = config.getRoomHeight(roomName);
+    }
 
-        Point startPos = IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("player.start"));
-        player.move(startPos.x, startPos.y);
-        endRoom.setPlayer(player);
+    /**
+     * Returns the name of the room the player is currently in.
+     * @return The current room name.
+     */
+    public static String getCurrRoomName() {
+        return rooms.nameOf(currRoomId);
+    }
+
+    /**
+     * Returns the graph of the rooms and the doors between them.
+     * @return The room graph.
+     */
+    public static RoomGraph getRooms() {
+        return rooms;
     }
 
     /**
@@ -216,40 +266,51 @@ public class ShadowDungeon extends AbstractGame {
      */
     public static void setPlayer(Player newPlayer) {
         player = newPlayer;
+        FrameProfiler.markUnsteady();
 
         // keep the player attached to the current room
-        switch (currRoomName) {
-            case PREP_ROOM_NAME -> prepRoom.setPlayer(player);
-            case BATTLE_ROOM_A_NAME -> battleRoomA.setPlayer(player);
-            case BATTLE_ROOM_B_NAME -> battleRoomB.setPlayer(player);
-            default -> endRoom.setPlayer(player);
-        }
+        currRoom.setPlayer(player);
     }
 
 
     /**
-     * Returns the global game configuration properties.
-     * @return The game properties.
+     * Returns the global game configuration.
+     * @return The parsed game configuration.
+     */
+    public static GameConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Records the input of every tick from now on into the given log, for {@link Replayer} to play back.
+     * @param logFile The path of the input log.
      */
-    public static Properties getGameProps() {
-        return gameProps;
+    public void startRecording(String logFile) {
+        recorder = new InputRecorder(logFile);
     }
+
     /**
-     * Returns the global message/string configuration properties.
-     * @return The message properties.
+     * Stops recording input and closes the log.
      */
-    public static Properties getMessageProps() {
-        return messageProps;
+    public void stopRecording() {
+        if (recorder != null) {
+            recorder.close();
+            recorder = null;
+        }
     }
 
     /**
      * Entry point of the program that loads properties and starts the game loop.
-     * @param args Command-line arguments (unused).
+     * @param args Optionally "--record" followed by the path of an input log to record the session into.
      */
     public static void main(String[] args) {
         Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
         Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
         ShadowDungeon game = new ShadowDungeon(gameProps, messageProps);
+        if (args.length == 2 && args[0].equals("--record")) {
+            game.startRecording(args[1]);
+        }
         game.run();
+        game.stopRecording();
     }
 }
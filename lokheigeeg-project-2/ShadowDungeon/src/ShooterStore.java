@@ -0,0 +1,108 @@
+import java.util.Arrays;
+
+/**
+ * Shooter components of the enemies that fire a {@link BulletPattern} at the player at fixed intervals.
+ */
+public class ShooterStore extends ComponentStore {
+    /** Ticks between the shots of each shooter. */
+    public double[] frequency = new double[0];
+    /** The tick each shooter last fired on, or -1 before its first shot. */
+    public int[] lastShotFrame = new int[0];
+    /** The pattern each shooter fires. */
+    public BulletPattern[] pattern = new BulletPattern[0];
+    /** Volleys of the current shot each shooter has still to fire. */
+    public int[] volleysLeft = new int[0];
+    /** The tick each shooter fires its next volley on. */
+    public double[] nextVolley = new double[0];
+    /** Degrees each shooter's pattern has turned, which rings and spirals start their next volley from. */
+    public double[] turn = new double[0];
+
+    /**
+     * Creates an empty store.
+     */
+    public ShooterStore() {
+        grow(capacity());
+    }
+
+    /**
+     * Makes an entity shoot a pattern at the given interval, starting with the first tick it is awake.
+     * @param entity The entity.
+     * @param shootFrequency The ticks between shots.
+     * @param shotPattern The pattern each shot fires.
+     * @return The slot of the new component.
+     */
+    public int add(int entity, double shootFrequency, BulletPattern shotPattern) {
+        int slot = add(entity);
+        frequency[slot] = shootFrequency;
+        lastShotFrame[slot] = -1;
+        pattern[slot] = shotPattern;
+        volleysLeft[slot] = 0;
+        nextVolley[slot] = 0;
+        turn[slot] = 0;
+        return slot;
+    }
+
+    /**
+     * Starts a shot from a shooter if one is due on the given tick, recording the shot and queueing its volleys, the
+     * first of them for this tick.
+     * @param slot The slot of the shooter.
+     * @param currentFrame The current tick.
+     */
+    public void startShotIfDue(int slot, int currentFrame) {
+        // the first shot is right away, then shoot again only when enough frames have passed
+        if (lastShotFrame[slot] == -1 || currentFrame - lastShotFrame[slot] >= frequency[slot]) {
+            lastShotFrame[slot] = currentFrame;
+            volleysLeft[slot] = pattern[slot].volleys;
+            nextVolley[slot] = currentFrame;
+        }
+    }
+
+    /**
+     * Checks whether a shooter fires a volley on the given tick, and if so queues the next volley of its shot.
+     * @param slot The slot of the shooter.
+     * @param currentFrame The current tick.
+     * @return True if it fires a volley, otherwise false.
+     */
+    public boolean canFireVolley(int slot, int currentFrame) {
+        if (volleysLeft[slot] > 0 && currentFrame >= nextVolley[slot]) {
+            volleysLeft[slot]--;
+            nextVolley[slot] += GameClock.ticks(pattern[slot].volleyInterval);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the shooter components in this store with copies of another store's.
+     * @param other The store to copy.
+     */
+    public void copyFrom(ShooterStore other) {
+        copyEntitiesFrom(other);
+        System.arraycopy(other.frequency, 0, frequency, 0, size);
+        System.arraycopy(other.lastShotFrame, 0, lastShotFrame, 0, size);
+        System.arraycopy(other.pattern, 0, pattern, 0, size);
+        System.arraycopy(other.volleysLeft, 0, volleysLeft, 0, size);
+        System.arraycopy(other.nextVolley, 0, nextVolley, 0, size);
+        System.arraycopy(other.turn, 0, turn, 0, size);
+    }
+
+    @Override
+    protected void move(int from, int to) {
+        frequency[to] = frequency[from];
+        lastShotFrame[to] = lastShotFrame[from];
+        pattern[to] = pattern[from];
+        volleysLeft[to] = volleysLeft[from];
+        nextVolley[to] = nextVolley[from];
+        turn[to] = turn[from];
+    }
+
+    @Override
+    protected void grow(int capacity) {
+        frequency = Arrays.copyOf(frequency, capacity);
+        lastShotFrame = Arrays.copyOf(lastShotFrame, capacity);
+        pattern = Arrays.copyOf(pattern, capacity);
+        volleysLeft = Arrays.copyOf(volleysLeft, capacity);
+        nextVolley = Arrays.copyOf(nextVolley, capacity);
+        turn = Arrays.copyOf(turn, capacity);
+    }
+}
@@ -0,0 +1,94 @@
+import bagel.Keys;
+import bagel.MouseButtons;
+import bagel.util.Point;
+
+import java.util.EnumSet;
+
+/**
+ * Game input whose state is set by code instead of a window, used to drive the game headless.
+ */
+public class SimulatedInput implements GameInput {
+    private final EnumSet<Keys> keysDown = EnumSet.noneOf(Keys.class);
+    private final EnumSet<Keys> keysPressed = EnumSet.noneOf(Keys.class);
+    private final EnumSet<MouseButtons> buttonsDown = EnumSet.noneOf(MouseButtons.class);
+    private double mouseX;
+    private double mouseY;
+
+    /**
+     * Holds a key down; it counts as pressed until the next call to {@link #nextFrame()}.
+     * @param key The key to press.
+     */
+    public void press(Keys key) {
+        if (keysDown.add(key)) {
+            keysPressed.add(key);
+        }
+    }
+
+    /**
+     * Releases a held key.
+     * @param key The key to release.
+     */
+    public void release(Keys key) {
+        keysDown.remove(key);
+    }
+
+    /**
+     * Sets whether a mouse button is held down.
+     * @param button The mouse button.
+     * @param down True if the button is held down, otherwise false.
+     */
+    public void setButton(MouseButtons button, boolean down) {
+        if (down) {
+            buttonsDown.add(button);
+        } else {
+            buttonsDown.remove(button);
+        }
+    }
+
+    /**
+     * Moves the mouse cursor.
+     * @param x The new mouse x-coordinate.
+     * @param y The new mouse y-coordinate.
+     */
+    public void setMouse(double x, double y) {
+        mouseX = x;
+        mouseY = y;
+    }
+
+    /**
+     * Clears the keys pressed this frame, keeping held keys down.
+     */
+    public void nextFrame() {
+        keysPressed.clear();
+    }
+
+    @Override
+    public boolean isDown(Keys key) {
+        return keysDown.contains(key);
+    }
+
+    @Override
+    public boolean wasPressed(Keys key) {
+        return keysPressed.contains(key);
+    }
+
+    @Override
+    public boolean isDown(MouseButtons button) {
+        return buttonsDown.contains(button);
+    }
+
+    @Override
+    public double getMouseX() {
+        return mouseX;
+    }
+
+    @Override
+    public double getMouseY() {
+        return mouseY;
+    }
+
+    @Override
+    public Point getMousePosition() {
+        return new Point(mouseX, mouseY);
+    }
+}
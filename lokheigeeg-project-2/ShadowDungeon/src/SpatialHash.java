@@ -0,0 +1,139 @@
+import java.util.Arrays;
+
+/**
+ * Uniform spatial hash grid that finds the items near an area without testing every item.
+ * Items are stored in the cell containing their centre, so the cell size must be at least as large as the
+ * largest item; queries then only look at the cells around the queried area.
+ * Items are plain ints, such as component slots, so filling and querying the grid allocates nothing once the
+ * buckets have grown to fit.
+ */
+public class SpatialHash {
+    private static final int INITIAL_BUCKET_SIZE = 4;
+
+    private final double cellSize;
+    private final int mask;
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private final int[] usedBuckets;
+    private int usedBucketCount = 0;
+    private int[] visitedBuckets = new int[16];
+    private int[] results = new int[16];
+
+    /**
+     * Creates an empty spatial hash.
+     * @param cellSize The width and height of a cell, at least the size of the largest item.
+     * @param bucketCount The number of hash buckets, rounded up to a power of two.
+     */
+    public SpatialHash(double cellSize, int bucketCount) {
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.cellSize = cellSize;
+        this.mask = size - 1;
+        this.buckets = new int[size][INITIAL_BUCKET_SIZE];
+        this.bucketSizes = new int[size];
+        this.usedBuckets = new int[size];
+    }
+
+    /**
+     * Removes all items, keeping the allocated buckets for reuse.
+     */
+    public void clear() {
+        for (int i = 0; i < usedBucketCount; i++) {
+            bucketSizes[usedBuckets[i]] = 0;
+        }
+        usedBucketCount = 0;
+    }
+
+    /**
+     * Adds an item centred at the given position.
+     * @param item The item to add.
+     * @param x The x-coordinate of the item's centre.
+     * @param y The y-coordinate of the item's centre.
+     */
+    public void insert(int item, double x, double y) {
+        int bucket = bucketOf(cellOf(x), cellOf(y));
+        int count = bucketSizes[bucket];
+        if (count == 0) {
+            usedBuckets[usedBucketCount++] = bucket;
+        }
+        if (count == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], count * 2);
+        }
+        buckets[bucket][count] = item;
+        bucketSizes[bucket] = count + 1;
+    }
+
+    /**
+     * Finds every item that may overlap the given area, each at most once, and keeps them until the next query.
+     * The results can contain items that do not actually overlap, so callers still test each candidate.
+     * @param left The smallest x-coordinate of the area.
+     * @param top The smallest y-coordinate of the area.
+     * @param right The largest x-coordinate of the area.
+     * @param bottom The largest y-coordinate of the area.
+     * @return The number of candidate items found, read with {@link #result(int)}.
+     */
+    public int query(double left, double top, double right, double bottom) {
+        // an overlapping item's centre is at most half a cell outside the area
+        double margin = cellSize / 2;
+        int minX = cellOf(left - margin);
+        int maxX = cellOf(right + margin);
+        int minY = cellOf(top - margin);
+        int maxY = cellOf(bottom + margin);
+
+        int visited = 0;
+        int found = 0;
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                int bucket = bucketOf(cx, cy);
+                int count = bucketSizes[bucket];
+                if (count == 0 || wasVisited(bucket, visited)) {
+                    continue;
+                }
+                if (visited == visitedBuckets.length) {
+                    visitedBuckets = Arrays.copyOf(visitedBuckets, visited * 2);
+                }
+                visitedBuckets[visited++] = bucket;
+                if (found + count > results.length) {
+                    results = Arrays.copyOf(results, Math.max(results.length * 2, found + count));
+                }
+                System.arraycopy(buckets[bucket], 0, results, found, count);
+                found += count;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns one of the items found by the last query.
+     * @param index The index of the result, below the count returned by the query.
+     * @return The item.
+     */
+    public int result(int index) {
+        return results[index];
+    }
+
+    /**
+     * Returns the size of a cell.
+     * @return The cell width and height.
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    private boolean wasVisited(int bucket, int visited) {
+        for (int i = 0; i < visited; i++) {
+            if (visitedBuckets[i] == bucket) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private int bucketOf(int cellX, int cellY) {
+        // mix the two cell coordinates with large primes so neighbouring cells land in different buckets
+        return ((cellX * 73856093) ^ (cellY * 19349663)) & mask;
+    }
+}
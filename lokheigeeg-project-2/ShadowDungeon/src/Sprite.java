@@ -0,0 +1,116 @@
+import bagel.Image;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Size metadata of an image file, used by the game logic for collisions without needing a window.
+ * The bagel texture itself is only loaded when preloaded or the first time the sprite is drawn.
+ * Sprites are shared; get them from {@link Assets#getSprite(String)} rather than creating new ones.
+ */
+public class Sprite {
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();     // sprites are created by the room builder too
+
+    private final int id = NEXT_ID.getAndIncrement();
+    private final String file;
+    private final double width;
+    private final double height;
+    private Image image;
+
+    /**
+     * Creates a sprite for the given image file, reading only its dimensions.
+     * @param file The path to the image file (e.g. "res/wall.png").
+     * @throws java.io.UncheckedIOException If the image file cannot be read.
+     */
+    public Sprite(String file) {
+        this.file = file;
+        int[] size = IOUtils.readImageSize(file);
+        this.width = size[0];
+        this.height = size[1];
+    }
+
+    /**
+     * Queues the sprite to be drawn centred at the given coordinates when the {@link SpriteBatch} is flushed.
+     * @param x The x-coordinate of the centre.
+     * @param y The y-coordinate of the centre.
+     * @param layer The layer to draw it in.
+     */
+    public void draw(double x, double y, SpriteBatch.Layer layer) {
+        SpriteBatch.add(this, layer, x, y);
+    }
+
+    /**
+     * Draws the sprite centred at the given coordinates right away, loading the texture on first use.
+     * @param x The x-coordinate of the centre.
+     * @param y The y-coordinate of the centre.
+     */
+    public void submit(double x, double y) {
+        loadTexture();
+        image.draw(x, y);
+    }
+
+    /**
+     * Loads the bagel texture of this sprite if it is not loaded yet. Needs the game window to exist.
+     */
+    public void loadTexture() {
+        if (image == null) {
+            image = new Image(file);
+        }
+    }
+
+    /**
+     * Checks whether the texture of this sprite has been loaded.
+     * @return True if the texture is loaded, otherwise false.
+     */
+    public boolean isTextureLoaded() {
+        return image != null;
+    }
+
+    /**
+     * Returns an estimate of the memory used by this sprite's texture.
+     * @return The texture size in bytes, at 4 bytes per pixel.
+     */
+    public long getTextureBytes() {
+        return (long) width * (long) height * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Returns the number that identifies this sprite, and so its texture, in a {@link SpriteBatch}.
+     * @return The id, from 0 up to the number of sprites created.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the number of sprites created, one more than the largest id.
+     * @return The sprite count.
+     */
+    public static int count() {
+        return NEXT_ID.get();
+    }
+
+    /**
+     * Returns the path of the image file.
+     * @return The image file path.
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the width of the sprite in pixels.
+     * @return The sprite width.
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns the height of the sprite in pixels.
+     * @return The sprite height.
+     */
+    public double getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,142 @@
+import java.util.Arrays;
+
+/**
+ * Collects the sprites drawn in a frame and submits them sorted by layer, then by texture within a layer, so each
+ * texture is bound once per layer instead of once per sprite, however the rooms happen to visit their objects.
+ * <p>
+ * The sort is a counting sort over (layer, sprite) buckets, which keeps the order sprites were drawn in within a
+ * bucket and never allocates once the arrays have grown to the largest frame. The sorted sprites go to the game's
+ * {@link Renderer}, moved from room coordinates into the {@link Camera}'s view; sprites lying entirely outside the
+ * view are dropped as they are added. Text is drawn immediately, so anything drawing text flushes the batch first,
+ * keeping it above the sprites drawn before it.
+ */
+public class SpriteBatch {
+    /**
+     * The layers sprites are drawn in, bottom first. Sprites of one layer are drawn grouped by texture, so they
+     * should not rely on overlapping each other in a particular order.
+     */
+    public enum Layer {
+        /** The background of the screen. */
+        BACKGROUND,
+        /** Doors. */
+        DOORS,
+        /** The basket, the table, and the restart and character selection areas. */
+        FURNITURE,
+        /** Enemies and keys. */
+        ENTITIES,
+        /** Fireballs and the player's bullets. */
+        PROJECTILES,
+        /** Walls and rivers. */
+        TERRAIN,
+        /** Treasure boxes, which sit on top of the rivers and walls they are placed on. */
+        TREASURE,
+        /** The player. */
+        PLAYER
+    }
+
+    private static final Layer[] LAYER_VALUES = Layer.values();
+    private static final int LAYERS = LAYER_VALUES.length;
+
+    private static Sprite[] sprites = new Sprite[256];
+    private static double[] xs = new double[256];
+    private static double[] ys = new double[256];
+    private static int[] layers = new int[256];
+    private static int size = 0;
+    private static int culled = 0;
+
+    // filled by the sort: the bucket of each draw, and the draws in the order they are submitted
+    private static int[] buckets = new int[256];
+    private static int[] order = new int[256];
+    private static int[] bucketStart = new int[LAYERS * 16 + 1];
+
+    private SpriteBatch() {
+    }
+
+    /**
+     * Queues a sprite to be drawn when the batch is flushed, unless it lies outside the view.
+     * @param sprite The sprite.
+     * @param layer The layer to draw it in.
+     * @param x The x-coordinate of the centre, in room coordinates; in window coordinates for the background.
+     * @param y The y-coordinate of the centre, in room coordinates; in window coordinates for the background.
+     */
+    public static void add(Sprite sprite, Layer layer, double x, double y) {
+        if (layer != Layer.BACKGROUND) {
+            x -= Camera.getLeft();
+            y -= Camera.getTop();
+            double halfWidth = sprite.getWidth() / 2;
+            double halfHeight = sprite.getHeight() / 2;
+            if (x + halfWidth < 0 || x - halfWidth > ShadowDungeon.screenWidth || y + halfHeight < 0
+                    || y - halfHeight > ShadowDungeon.screenHeight) {
+                culled++;
+                return;
+            }
+        }
+        if (size == sprites.length) {
+            int capacity = size * 2;
+            sprites = Arrays.copyOf(sprites, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            layers = Arrays.copyOf(layers, capacity);
+            buckets = new int[capacity];
+            order = new int[capacity];
+        }
+        sprites[size] = sprite;
+        xs[size] = x;
+        ys[size] = y;
+        layers[size] = layer.ordinal();
+        size++;
+    }
+
+    /**
+     * Draws every queued sprite, layer by layer and texture by texture, and empties the batch.
+     */
+    public static void flush() {
+        if (size == 0) {
+            return;
+        }
+        long start = FrameProfiler.start();
+        // one bucket per layer and sprite, in drawing order
+        int spriteCount = Sprite.count();
+        int bucketCount = LAYERS * spriteCount;
+        if (bucketStart.length < bucketCount + 1) {
+            bucketStart = new int[bucketCount * 2 + 1];
+        }
+        Arrays.fill(bucketStart, 0, bucketCount + 1, 0);
+        for (int i = 0; i < size; i++) {
+            buckets[i] = layers[i] * spriteCount + sprites[i].getId();
+            bucketStart[buckets[i] + 1]++;
+        }
+        int runs = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            if (bucketStart[b + 1] > 0) {
+                runs++;
+            }
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        for (int i = 0; i < size; i++) {
+            order[bucketStart[buckets[i]]++] = i;
+        }
+
+        Renderer renderer = ShadowDungeon.getRenderer();
+        for (int k = 0; k < size; k++) {
+            int i = order[k];
+            renderer.drawSprite(sprites[i], LAYER_VALUES[layers[i]], xs[i], ys[i]);
+            sprites[i] = null;
+        }
+        if (FrameProfiler.isEnabled()) {
+            FrameProfiler.count(FrameProfiler.Count.SPRITES, size);
+            FrameProfiler.count(FrameProfiler.Count.TEXTURE_RUNS, runs);
+        }
+        size = 0;
+        FrameProfiler.lap(FrameProfiler.Phase.SPRITES, start);
+    }
+
+    /**
+     * Flushes the batch at the end of a frame and reports how many sprites the frame culled.
+     */
+    public static void endFrame() {
+        flush();
+        FrameProfiler.count(FrameProfiler.Count.CULLED, culled);
+        culled = 0;
+    }
+}
@@ -0,0 +1,175 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over objects that never move, built once when a room is set up. Each object is listed in every
+ * cell its bounding box covers, so finding the objects near an area only looks at the few cells around it,
+ * however many objects the room has. Objects can be removed later, e.g. when they are destroyed.
+ * @param <T> The type of objects stored.
+ */
+public class StaticGrid<T> {
+    private static final int MAX_CELLS_PER_SIDE = 128;
+
+    private final List<T> items = new ArrayList<>();
+    private double[] boxes = new double[16];    // left, top, right, bottom of each item
+    private boolean[] removed = new boolean[4];
+    private double cellSize;
+    private int columns;
+    private int rows;
+    private int[] cellStart;                    // items of cell c are cellItems[cellStart[c]] to cellItems[cellStart[c + 1] - 1]
+    private int[] cellItems;
+    private int[] visited = new int[0];         // query stamp of each item, so an item in several cells is seen once
+    private int stamp = 0;
+    private int[] found = new int[0];
+
+    /**
+     * Adds an object. Must be called before {@link #build(double, double)}.
+     * @param item The object to add.
+     * @param box The bounding box of the object.
+     * @return The index of the object, to remove it by later.
+     */
+    public int add(T item, BoundingBox box) {
+        int index = items.size();
+        if (boxes.length < (index + 1) * 4) {
+            boxes = Arrays.copyOf(boxes, boxes.length * 2);
+            removed = Arrays.copyOf(removed, removed.length * 2);
+        }
+        items.add(item);
+        boxes[index * 4] = box.left();
+        boxes[index * 4 + 1] = box.top();
+        boxes[index * 4 + 2] = box.right();
+        boxes[index * 4 + 3] = box.bottom();
+        return index;
+    }
+
+    /**
+     * Lays out the grid over the added objects. Cells are as large as the largest object, so most objects cover
+     * at most four cells, but no smaller than needed to cover the area with 128 cells a side, and a grid with no
+     * objects is a single cell, so small or missing objects do not cost one cell per pixel.
+     * @param width The width of the area the grid covers; objects outside it are kept in the edge cells.
+     * @param height The height of the area the grid covers.
+     */
+    public void build(double width, double height) {
+        int count = items.size();
+        cellSize = count == 0 ? Math.max(1, Math.max(width, height))
+                : Math.max(1, Math.max(width, height) / MAX_CELLS_PER_SIDE);
+        for (int i = 0; i < count; i++) {
+            cellSize = Math.max(cellSize, Math.max(boxes[i * 4 + 2] - boxes[i * 4], boxes[i * 4 + 3] - boxes[i * 4 + 1]));
+        }
+        columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        cellStart = new int[columns * rows + 1];
+        visited = new int[count];
+        found = new int[count];     // large enough for any query, so querying never allocates
+
+        // count the items in each cell, turn the counts into offsets, then fill the cells
+        for (int i = 0; i < count; i++) {
+            for (int cy = row(boxes[i * 4 + 1]); cy <= row(boxes[i * 4 + 3]); cy++) {
+                for (int cx = column(boxes[i * 4]); cx <= column(boxes[i * 4 + 2]); cx++) {
+                    cellStart[cy * columns + cx + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        cellItems = new int[cellStart[columns * rows]];
+        int[] filled = Arrays.copyOf(cellStart, columns * rows);
+        for (int i = 0; i < count; i++) {
+            for (int cy = row(boxes[i * 4 + 1]); cy <= row(boxes[i * 4 + 3]); cy++) {
+                for (int cx = column(boxes[i * 4]); cx <= column(boxes[i * 4 + 2]); cx++) {
+                    cellItems[filled[cy * columns + cx]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes an object, so that queries no longer find it.
+     * @param index The index {@link #add} returned for the object.
+     */
+    public void remove(int index) {
+        removed[index] = true;
+    }
+
+    /**
+     * Puts back every object removed since the grid was built.
+     */
+    public void restoreAll() {
+        Arrays.fill(removed, false);
+    }
+
+    /**
+     * Checks whether any object overlaps the given area, including touching edges.
+     * @param left The smallest x-coordinate of the area.
+     * @param top The smallest y-coordinate of the area.
+     * @param right The largest x-coordinate of the area.
+     * @param bottom The largest y-coordinate of the area.
+     * @return True if an object overlaps the area, false otherwise.
+     */
+    public boolean overlapsAny(double left, double top, double right, double bottom) {
+        int maxRow = row(bottom);
+        int maxColumn = column(right);
+        for (int cy = row(top); cy <= maxRow; cy++) {
+            for (int cx = column(left); cx <= maxColumn; cx++) {
+                int cell = cy * columns + cx;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = cellItems[k];
+                    if (!removed[i] && boxes[i * 4 + 2] >= left && boxes[i * 4] <= right
+                            && boxes[i * 4 + 3] >= top && boxes[i * 4 + 1] <= bottom) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds every object overlapping the given box to the result list, each once and in the order they were added.
+     * @param area The area to search.
+     * @param result The list the overlapping objects are added to.
+     */
+    public void query(BoundingBox area, List<T> result) {
+        stamp++;
+        int foundCount = 0;
+        int maxRow = row(area.bottom());
+        int maxColumn = column(area.right());
+        for (int cy = row(area.top()); cy <= maxRow; cy++) {
+            for (int cx = column(area.left()); cx <= maxColumn; cx++) {
+                int cell = cy * columns + cx;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = cellItems[k];
+                    if (visited[i] != stamp && !removed[i] && area.intersects(boxes[i * 4], boxes[i * 4 + 1],
+                            boxes[i * 4 + 2], boxes[i * 4 + 3])) {
+                        visited[i] = stamp;
+                        found[foundCount++] = i;
+                    }
+                }
+            }
+        }
+
+        // report the objects in the order they were added, as collisions are resolved in that order
+        Arrays.sort(found, 0, foundCount);
+        for (int k = 0; k < foundCount; k++) {
+            result.add(items.get(found[k]));
+        }
+    }
+
+    /**
+     * Returns the number of objects added, including removed ones.
+     * @return The object count.
+     */
+    public int size() {
+        return items.size();
+    }
+
+    private int column(double x) {
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor(x / cellSize)));
+    }
+
+    private int row(double y) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor(y / cellSize)));
+    }
+}
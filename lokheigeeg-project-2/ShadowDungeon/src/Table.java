@@ -1,12 +1,11 @@
-import bagel.Image;
 import bagel.util.Point;
-import bagel.util.Rectangle;
 /**
  * Represents a table obstacle that blocks player movement until destroyed.
  */
 public class Table implements Obstacle{
         private Point position;
-        private Image image;
+        private Sprite image;
+        private final BoundingBox box;
         private boolean isDestoryed = false;
     /**
      * Creates a Table at the specified position.
@@ -14,7 +13,8 @@ public class Table implements Obstacle{
      */
         public Table(Point position){
             this.position = position;
-            this.image = new Image("res/table.png");
+            this.image = Assets.getSprite("res/table.png");
+            this.box = new BoundingBox(image, position.x, position.y);
         }
     /**
      * Updates the table and prevents the player from passing through if it’s not destroyed.
@@ -26,14 +26,14 @@ public class Table implements Obstacle{
             }
             if (hasCollidedWith(player)) {
                 // set the player to its position prior to attempting to move through this wall
-                player.move(player.getPrevPosition().x, player.getPrevPosition().y);
+                player.moveBack();
             }
         }
     /**
      * Draws the table on the screen.
      */
         public void draw() {
-            image.draw(position.x, position.y);
+            image.draw(position.x, position.y, SpriteBatch.Layer.FURNITURE);
         }
     /**
      * Checks if the player has collided with the table.
@@ -41,15 +41,15 @@ public class Table implements Obstacle{
      * @return true if the player collides with the table; otherwise false.
      */
         public boolean hasCollidedWith(Player player) {
-            return image.getBoundingBoxAt(position).intersects(player.getCurrImage().getBoundingBoxAt(player.getPosition()));
+            return box.intersects(player.getBoundingBox());
         }
     /**
      * Returns the bounding box of the table for collision detection.
      * @return The bounding box of the table.
      */
         @Override
-        public Rectangle getBoundingBox() {
-            return image.getBoundingBoxAt(position);
+        public BoundingBox getBoundingBox() {
+            return box;
         }
     /**
      * Sets whether the table is destroyed.
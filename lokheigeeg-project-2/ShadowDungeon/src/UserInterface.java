@@ -1,11 +1,20 @@
-import bagel.Font;
-import bagel.Window;
 import bagel.util.Point;
 
 /**
  * Helper methods to display information for the player
  */
 public class UserInterface {
+    private static GameConfig hudConfig;
+    private static HudText healthText;
+    private static HudText coinText;
+    private static HudText keyText;
+    private static HudText weaponText;
+    private static HudText titleText;
+    private static HudText moveText;
+    private static HudText selectText;
+    private static HudText wonText;
+    private static HudText lostText;
+
     /**
      * Draws the player's current stats (health, coins, keys, and weapon status) on the screen.
      * @param health The player's current health value.
@@ -14,46 +23,50 @@ public class UserInterface {
      * @param weaponStat The weapon status value.
      */
     public static void drawStats(double health, double coins, double keys, double weaponStat) {
-        int fontSize = Integer.parseInt(ShadowDungeon.getGameProps().getProperty("playerStats.fontSize"));
-        drawData(String.format("%s %.1f", ShadowDungeon.getMessageProps().getProperty("healthDisplay"), health), fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("healthStat")));
-        drawData(String.format("%s %.0f", ShadowDungeon.getMessageProps().getProperty("coinDisplay"), coins), fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("coinStat")));
-        drawData(String.format("%s %.0f", ShadowDungeon.getMessageProps().getProperty("keyDisplay"),keys ), fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("keyStat")));
-        drawData(String.format("%s %.0f", ShadowDungeon.getMessageProps().getProperty("weaponDisplay"),keys ), fontSize,
-                IOUtils.parseCoords(ShadowDungeon.getGameProps().getProperty("weaponStat")));
-
-
+        // the sprites drawn so far go below the HUD, and are timed on their own
+        SpriteBatch.flush();
+        long start = FrameProfiler.start();
+        GameConfig config = getHudConfig();
+        healthText.setValue(health);
+        coinText.setValue(coins);
+        keyText.setValue(keys);
+        weaponText.setValue(keys);
+        healthText.draw(config.healthStat.x, config.healthStat.y);
+        coinText.draw(config.coinStat.x, config.coinStat.y);
+        keyText.draw(config.keyStat.x, config.keyStat.y);
+        weaponText.draw(config.weaponStat.x, config.weaponStat.y);
+        FrameProfiler.lap(FrameProfiler.Phase.HUD, start);
     }
 
     /**
      * Draws the starting messages and controls instructions on the prep screen.
      */
     public static void drawStartMessages() {
-        drawTextCentered("title", Integer.parseInt(ShadowDungeon.getGameProps().getProperty("title.fontSize")), Double.parseDouble(ShadowDungeon.getGameProps().getProperty("title.y")));
-        drawTextCentered("moveMessage", Integer.parseInt(ShadowDungeon.getGameProps().getProperty("prompt.fontSize")), Double.parseDouble(ShadowDungeon.getGameProps().getProperty("moveMessage.y")));
-        drawTextCentered("selectMessage", Integer.parseInt(ShadowDungeon.getGameProps().getProperty("prompt.fontSize")), Double.parseDouble(ShadowDungeon.getGameProps().getProperty("selectMessage.y")));
-
+        GameConfig config = getHudConfig();
+        titleText.drawCentered(config.titleY);
+        moveText.drawCentered(config.moveMessageY);
+        selectText.drawCentered(config.selectMessageY);
     }
     /**
      * Draws the end game message depending on whether the player has won or lost.
      * @param win true if the player has won; false if lost.
      */
     public static void drawEndMessage(boolean win) {
-        drawTextCentered(win ? "gameEnd.won" : "gameEnd.lost", Integer.parseInt(ShadowDungeon.getGameProps().getProperty("title.fontSize")), Double.parseDouble(ShadowDungeon.getGameProps().getProperty("title.y")));
+        GameConfig config = getHudConfig();
+        (win ? wonText : lostText).drawCentered(config.titleY);
     }
     /**
      * Draws a line of text centered horizontally at the given Y position.
-     * @param textPath The key of the text message from the properties file.
+     * @param text The text to display.
      * @param fontSize The font size of the displayed text.
      * @param posY The Y position where the text should appear.
      */
-    public static void drawTextCentered(String textPath, int fontSize, double posY) {
-        Font font = new Font("res/wheaton.otf", fontSize);
-        String text = ShadowDungeon.getMessageProps().getProperty(textPath);
-        double posX = (Window.getWidth() - font.getWidth(text)) / 2;
-        font.drawString(text, posX, posY);
+    public static void drawTextCentered(String text, int fontSize, double posY) {
+        Renderer renderer = ShadowDungeon.getRenderer();
+        String font = ShadowDungeon.getConfig().font;
+        double posX = (ShadowDungeon.screenWidth - renderer.getTextWidth(font, fontSize, text)) / 2;
+        SpriteBatch.flush();
+        renderer.drawText(font, fontSize, text, posX, posY);
     }
 
     /**
@@ -63,7 +76,36 @@ public class UserInterface {
      * @param location The location where the text will appear.
      */
     public static void drawData(String data, int fontSize, Point location) {
-        Font font = new Font("res/wheaton.otf", fontSize);
-        font.drawString(data, location.x, location.y);
+        drawData(data, fontSize, location.x, location.y);
+    }
+
+    /**
+     * Draws a line of text or data at the specified coordinates.
+     * @param data The string to be displayed.
+     * @param fontSize The font size to use for rendering the text.
+     * @param x The x-coordinate where the text will appear.
+     * @param y The y-coordinate where the text will appear.
+     */
+    public static void drawData(String data, int fontSize, double x, double y) {
+        SpriteBatch.flush();
+        ShadowDungeon.getRenderer().drawText(ShadowDungeon.getConfig().font, fontSize, data, x, y);
+    }
+
+    private static GameConfig getHudConfig() {
+        // rebuild the HUD text if the configuration has been reloaded
+        GameConfig config = ShadowDungeon.getConfig();
+        if (config != hudConfig) {
+            healthText = new HudText(config.healthDisplay, "%s %.1f", config.font, config.playerStatsFontSize);
+            coinText = new HudText(config.coinDisplay, "%s %.0f", config.font, config.playerStatsFontSize);
+            keyText = new HudText(config.keyDisplay, "%s %.0f", config.font, config.playerStatsFontSize);
+            weaponText = new HudText(config.weaponDisplay, "%s %.0f", config.font, config.playerStatsFontSize);
+            titleText = new HudText(config.title, config.font, config.titleFontSize);
+            moveText = new HudText(config.moveMessage, config.font, config.promptFontSize);
+            selectText = new HudText(config.selectMessage, config.font, config.promptFontSize);
+            wonText = new HudText(config.gameEndWon, config.font, config.titleFontSize);
+            lostText = new HudText(config.gameEndLost, config.font, config.titleFontSize);
+            hudConfig = config;
+        }
+        return config;
     }
 }
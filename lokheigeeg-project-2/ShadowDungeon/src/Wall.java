@@ -1,12 +1,11 @@
-import bagel.Image;
 import bagel.util.Point;
-import bagel.util.Rectangle;
 /**
  * Obstacle that blocks the player from moving through it
  */
 public class Wall implements Obstacle {
     private final Point position;
-    private final Image image;
+    private final Sprite image;
+    private final BoundingBox box;
 
     /**
      * Creates a Wall at the specified position.
@@ -14,7 +13,8 @@ public class Wall implements Obstacle {
      */
     public Wall(Point position) {
         this.position = position;
-        this.image = new Image("res/wall.png");
+        this.image = Assets.getSprite("res/wall.png");
+        this.box = new BoundingBox(image, position.x, position.y);
     }
     /**
      * Updates the wall and prevents the player from passing through if a collision occurs.
@@ -23,14 +23,14 @@ public class Wall implements Obstacle {
     public void update(Player player) {
         if (hasCollidedWith(player)) {
             // set the player to its position prior to attempting to move through this wall
-            player.move(player.getPrevPosition().x, player.getPrevPosition().y);
+            player.moveBack();
         }
     }
     /**
      * Draws the wall on the screen.
      */
     public void draw() {
-        image.draw(position.x, position.y);
+        image.draw(position.x, position.y, SpriteBatch.Layer.TERRAIN);
     }
 
     /**
@@ -39,7 +39,7 @@ public class Wall implements Obstacle {
      * @return true if the player's bounding box intersects the wall; otherwise false.
      */
     public boolean hasCollidedWith(Player player) {
-        return image.getBoundingBoxAt(position).intersects(player.getCurrImage().getBoundingBoxAt(player.getPosition()));
+        return box.intersects(player.getBoundingBox());
     }
 
 
@@ -48,8 +48,8 @@ public class Wall implements Obstacle {
      * @return The bounding box of the wall.
      */
     @Override
-    public Rectangle getBoundingBox() {
-        return image.getBoundingBoxAt(position);
+    public BoundingBox getBoundingBox() {
+        return box;
     }
 
 }
\ No newline at end of file
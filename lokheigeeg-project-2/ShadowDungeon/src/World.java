@@ -0,0 +1,505 @@
+import bagel.Keys;
+import bagel.util.Point;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The enemies, keys and treasure boxes of a battle room, kept as entities with packed components rather than one
+ * object and one list per type. An entity is just an id; what it is and does comes from the components it has,
+ * and the systems below each run over the dense array of one component.
+ * Ids carry a generation, so an id held after its entity was destroyed never matches the entity reusing its slot.
+ */
+public class World {
+    /** Returned when there is no entity or component. */
+    public static final int NONE = -1;
+
+    private static final int INDEX_BITS = 20;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - INDEX_BITS)) - 1;  // keeps ids positive
+    private static final int MIN_GRID_BUCKETS = 256;
+
+    /** Position, size and sprite of every entity. */
+    public final BodyStore bodies = new BodyStore();
+    /** Health of the enemies. */
+    public final HealthStore healths = new HealthStore();
+    /** The enemies that shoot. */
+    public final ShooterStore shooters = new ShooterStore();
+    /** The enemies that hurt the player on contact. */
+    public final ContactStore contacts = new ContactStore();
+    /** The enemies that walk a route. */
+    public final PatrolStore patrols = new PatrolStore();
+    /** The enemies that walk towards the player. */
+    public final ChaserStore chasers = new ChaserStore();
+    /** The keys and treasure boxes. */
+    public final PickupStore pickups = new PickupStore();
+
+    private final Sprite keySprite = Assets.getSprite("res/key.png");
+    private final Sprite treasureSprite = Assets.getSprite("res/treasure_box.png");
+    private int[] generations = new int[16];
+    private boolean[] alive = new boolean[16];
+    private int[] freeIndices = new int[16];
+    private int freeCount = 0;
+    private int nextIndex = 0;
+    private int entityCount = 0;
+    private boolean awake = false;
+    private SpatialHash enemyGrid;
+
+    /**
+     * Returns the index part of an entity id, which component stores use to find the entity's slot.
+     * @param entity The entity id.
+     * @return The index of the entity.
+     */
+    public static int indexOf(int entity) {
+        return entity & INDEX_MASK;
+    }
+
+    /**
+     * Creates an entity with no components.
+     * @return The id of the new entity.
+     */
+    public int create() {
+        int index;
+        if (freeCount > 0) {
+            index = freeIndices[--freeCount];
+        } else {
+            if (nextIndex > INDEX_MASK) {
+                throw new IllegalStateException("Too many entities: " + nextIndex);
+            }
+            index = nextIndex++;
+            if (index == generations.length) {
+                generations = Arrays.copyOf(generations, index * 2);
+                alive = Arrays.copyOf(alive, index * 2);
+            }
+        }
+        alive[index] = true;
+        entityCount++;
+        return generations[index] << INDEX_BITS | index;
+    }
+
+    /**
+     * Destroys an entity and all its components; its id is never valid again.
+     * @param entity The entity.
+     */
+    public void destroy(int entity) {
+        if (!isAlive(entity)) {
+            return;
+        }
+        bodies.remove(entity);
+        healths.remove(entity);
+        shooters.remove(entity);
+        contacts.remove(entity);
+        patrols.remove(entity);
+        chasers.remove(entity);
+        pickups.remove(entity);
+
+        int index = indexOf(entity);
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        alive[index] = false;
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        }
+        freeIndices[freeCount++] = index;
+        entityCount--;
+    }
+
+    /**
+     * Checks whether an id still refers to an existing entity.
+     * @param entity The entity id.
+     * @return True if the entity exists, otherwise false.
+     */
+    public boolean isAlive(int entity) {
+        int index = indexOf(entity);
+        return entity >= 0 && index < nextIndex && alive[index] && generations[index] == entity >>> INDEX_BITS;
+    }
+
+    /**
+     * Returns the number of existing entities.
+     * @return The number of entities.
+     */
+    public int size() {
+        return entityCount;
+    }
+
+    /**
+     * Turns this world into a copy of another, such as a room's pristine template, by copying the packed arrays.
+     * Ids from the other world are valid in this one afterwards.
+     * @param other The world to copy.
+     */
+    public void copyFrom(World other) {
+        bodies.copyFrom(other.bodies);
+        healths.copyFrom(other.healths);
+        shooters.copyFrom(other.shooters);
+        contacts.copyFrom(other.contacts);
+        patrols.copyFrom(other.patrols);
+        chasers.copyFrom(other.chasers);
+        pickups.copyFrom(other.pickups);
+        generations = Arrays.copyOf(other.generations, other.generations.length);
+        alive = Arrays.copyOf(other.alive, other.alive.length);
+        freeIndices = Arrays.copyOf(other.freeIndices, other.freeIndices.length);
+        freeCount = other.freeCount;
+        nextIndex = other.nextIndex;
+        entityCount = other.entityCount;
+        awake = other.awake;
+        enemyGrid = null;
+        if (awake) {
+            awake = false;
+            wake();
+        }
+    }
+
+    /**
+     * Spawns an enemy from an archetype, standing at the given position or patrolling the given route.
+     * @param archetype The kind of enemy.
+     * @param route The enemy's spawn point, followed by the rest of its route if the archetype patrols.
+     * @return The id of the new enemy.
+     */
+    public int spawnEnemy(Archetype archetype, List<Point> route) {
+        int entity = create();
+        Point start = route.get(0);
+        bodies.add(entity, archetype.sprite, start.x, start.y);
+        healths.add(entity, archetype);
+        contacts.add(entity, archetype.contactDamage, archetype.diesOnContact);
+        if (archetype.shootFrequency > 0) {
+            shooters.add(entity, archetype.shootFrequency, archetype.pattern);
+        }
+        if (archetype.chases) {
+            chasers.add(entity, archetype.speed);
+        } else if (archetype.speed > 0) {
+            patrols.add(entity, route, archetype.speed);
+        }
+        return entity;
+    }
+
+    /**
+     * Spawns a key the player picks up by touching it.
+     * @param x The x-coordinate of the key.
+     * @param y The y-coordinate of the key.
+     * @return The id of the new key.
+     */
+    public int spawnKey(double x, double y) {
+        return spawnPickup(keySprite, x, y, false, 1, 0);
+    }
+
+    /**
+     * Spawns a treasure box the player opens with a key.
+     * @param position The position of the treasure box.
+     * @param coinValue The coins inside.
+     * @return The id of the new treasure box.
+     */
+    public int spawnTreasure(Point position, double coinValue) {
+        return spawnPickup(treasureSprite, position.x, position.y, true, 0, coinValue);
+    }
+
+    /**
+     * Spawns something the player collects by touching it.
+     * @param sprite The image of the pickup.
+     * @param x The x-coordinate of the pickup.
+     * @param y The y-coordinate of the pickup.
+     * @param isLocked Whether opening it takes a key.
+     * @param keyCount The keys it gives.
+     * @param coinValue The coins it gives.
+     * @return The id of the new pickup.
+     */
+    public int spawnPickup(Sprite sprite, double x, double y, boolean isLocked, int keyCount, double coinValue) {
+        int entity = create();
+        bodies.add(entity, sprite, x, y);
+        pickups.add(entity, isLocked, keyCount, coinValue);
+        return entity;
+    }
+
+    /**
+     * Destroys every entity.
+     */
+    public void clear() {
+        for (int index = 0; index < nextIndex; index++) {
+            if (alive[index]) {
+                destroy(generations[index] << INDEX_BITS | index);
+            }
+        }
+    }
+
+    /**
+     * Wakes the enemies, which are hidden and idle until the player enters the room.
+     */
+    public void wake() {
+        if (awake) {
+            return;
+        }
+        awake = true;
+        FrameProfiler.markUnsteady();
+        // grid cells must be at least as large as the largest enemy sprite
+        double cellSize = 1;
+        for (int i = 0; i < healths.size(); i++) {
+            int body = bodies.slotOf(healths.entityAt(i));
+            cellSize = Math.max(cellSize, 2 * Math.max(bodies.halfWidth[body], bodies.halfHeight[body]));
+        }
+        // keep most buckets empty, so a query rarely picks up enemies from distant cells sharing its buckets
+        enemyGrid = new SpatialHash(cellSize, Math.max(MIN_GRID_BUCKETS, healths.size() * 4));
+    }
+
+    /**
+     * Checks whether the enemies are awake.
+     * @return True once the player has entered the room, otherwise false.
+     */
+    public boolean isAwake() {
+        return awake;
+    }
+
+    /**
+     * Checks whether every enemy has been killed.
+     * @return True if no enemy is left, otherwise false.
+     */
+    public boolean noMoreEnemies() {
+        return healths.size() == 0;
+    }
+
+    /**
+     * Adds the state of every entity to a checksum.
+     * @param checksum The checksum to add to.
+     */
+    public void addTo(Checksum checksum) {
+        checksum.add(awake);
+        checksum.add(bodies.size());
+        for (int i = 0; i < bodies.size(); i++) {
+            checksum.add(bodies.x[i]);
+            checksum.add(bodies.y[i]);
+        }
+        checksum.add(healths.size());
+        for (int i = 0; i < healths.size(); i++) {
+            checksum.add(healths.health[i]);
+        }
+    }
+
+    /**
+     * Movement system: walks every patrolling enemy towards the next point of its route.
+     */
+    public void patrol() {
+        if (!awake) {
+            return;
+        }
+        for (int i = 0; i < patrols.size(); i++) {
+            int body = bodies.slotOf(patrols.entityAt(i));
+            double x = bodies.x[body];
+            double y = bodies.y[body];
+            bodies.lastX[body] = x;
+            bodies.lastY[body] = y;
+
+            double[] route = patrols.route[i];
+            int target = patrols.target[i];
+            double targetX = route[target * 2];
+            double targetY = route[target * 2 + 1];
+            double distance = Math.sqrt((targetX - x) * (targetX - x) + (targetY - y) * (targetY - y));
+            double speed = patrols.speed[i];
+            double nextX = x + (targetX - x) / distance * speed;
+            double nextY = y + (targetY - y) / distance * speed;
+
+            // ensure it can't move past the edges of the room
+            double halfWidth = bodies.halfWidth[body];
+            double halfHeight = bodies.halfHeight[body];
+            if (nextX - halfWidth >= 0 && nextX + halfWidth <= ShadowDungeon.roomWidth
+                    && nextY - halfHeight >= 0 && nextY + halfHeight <= ShadowDungeon.roomHeight) {
+                bodies.x[body] = nextX;
+                bodies.y[body] = nextY;
+            }
+            if (distance < speed) {
+                bodies.x[body] = targetX;
+                bodies.y[body] = targetY;
+                // loop back to the first point
+                patrols.target[i] = (target + 1) * 2 < route.length ? target + 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * Movement system: walks every chasing enemy the way the flow field points from the cell it stands in, or
+     * straight at the player once in the player's cell or where the field has no way to the player.
+     * @param field The room's flow field, which is pointed at the player first.
+     * @param player The player.
+     */
+    public void chase(FlowField field, Player player) {
+        if (!awake || chasers.size() == 0) {
+            return;
+        }
+        field.setTarget(player.x, player.y);
+        for (int i = 0; i < chasers.size(); i++) {
+            int body = bodies.slotOf(chasers.entityAt(i));
+            double x = bodies.x[body];
+            double y = bodies.y[body];
+            bodies.lastX[body] = x;
+            bodies.lastY[body] = y;
+
+            double speed = chasers.speed[i];
+            int cell = field.cellOf(x, y);
+            double stepX = field.directionX(cell) * speed;
+            double stepY = field.directionY(cell) * speed;
+            if (stepX == 0 && stepY == 0) {
+                double dx = player.x - x;
+                double dy = player.y - y;
+                double distance = Math.sqrt(dx * dx + dy * dy);
+                double scale = distance < speed ? 1 : speed / distance;
+                stepX = dx * scale;
+                stepY = dy * scale;
+            }
+
+            // ensure it can't move past the edges of the room
+            double nextX = x + stepX;
+            double nextY = y + stepY;
+            double halfWidth = bodies.halfWidth[body];
+            double halfHeight = bodies.halfHeight[body];
+            if (nextX - halfWidth >= 0 && nextX + halfWidth <= ShadowDungeon.roomWidth
+                    && nextY - halfHeight >= 0 && nextY + halfHeight <= ShadowDungeon.roomHeight) {
+                bodies.x[body] = nextX;
+                bodies.y[body] = nextY;
+            }
+        }
+    }
+
+    /**
+     * Damage system, contact half: hurts the player for every enemy touching it.
+     * @param player The player.
+     */
+    public void touch(Player player) {
+        if (!awake) {
+            return;
+        }
+        for (int i = 0; i < contacts.size(); i++) {
+            int entity = contacts.entityAt(i);
+            if (bodies.intersects(bodies.slotOf(entity), player.getBoundingBox())) {
+                player.receiveDamage(contacts.damage[i]);
+                if (contacts.diesOnContact[i]) {
+                    healths.health[healths.slotOf(entity)] = 0;
+                }
+            }
+        }
+        removeDead();
+    }
+
+    /**
+     * Shooting system: starts a shot from every shooter whose next shot is due, and fires every volley due this tick
+     * from the shooter's pattern. Fireballs are written straight into the store, so a tick allocates nothing however
+     * many are fired.
+     * @param frame The current tick.
+     * @param fireballs The store the fireballs are spawned into.
+     * @param player The player aimed and homing patterns fire at.
+     * @return The number of fireballs fired.
+     */
+    public int shoot(int frame, FireballStore fireballs, Player player) {
+        if (!awake) {
+            return 0;
+        }
+        int fired = 0;
+        for (int i = 0; i < shooters.size(); i++) {
+            shooters.startShotIfDue(i, frame);
+            while (shooters.canFireVolley(i, frame)) {
+                BulletPattern pattern = shooters.pattern[i];
+                int body = bodies.slotOf(shooters.entityAt(i));
+                fired += pattern.emit(fireballs, bodies.x[body], bodies.y[body], player.getX(), player.getY(),
+                        shooters.turn[i]);
+                shooters.turn[i] = (shooters.turn[i] + pattern.spin) % 360;
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Damage system, bullet half: applies the player's bullets to the enemies they hit and rewards the kills.
+     * @param bullets The player's bullets.
+     * @param player The player.
+     */
+    public void hit(BulletStore bullets, Player player) {
+        if (!awake) {
+            return;
+        }
+        // index the enemies by position; dead ones stay in their slots until the sweep at the end
+        enemyGrid.clear();
+        for (int i = 0; i < healths.size(); i++) {
+            int body = bodies.slotOf(healths.entityAt(i));
+            enemyGrid.insert(i, bodies.x[body], bodies.y[body]);
+        }
+
+        for (int b = 0; b < bullets.size(); b++) {
+            if (!bullets.isActive(b)) {
+                continue;
+            }
+            // only test the enemies in the grid cells around the bullet
+            int found = enemyGrid.query(bullets.getLeft(b), bullets.getTop(b), bullets.getRight(b),
+                    bullets.getBottom(b));
+            for (int k = 0; k < found; k++) {
+                int enemy = enemyGrid.result(k);
+                int body = bodies.slotOf(healths.entityAt(enemy));
+                if (healths.isDead(enemy) || !bullets.intersects(b, bodies.x[body] - bodies.halfWidth[body],
+                        bodies.y[body] - bodies.halfHeight[body], bodies.x[body] + bodies.halfWidth[body],
+                        bodies.y[body] + bodies.halfHeight[body])) {
+                    continue;
+                }
+                healths.health[enemy] -= bullets.getDamage(b);
+                bullets.setActive(b, false);
+                if (healths.isDead(enemy) && healths.rewardsKill[enemy]) {
+                    player.applyPerkOnKill(healths.coinValue[enemy]);
+                }
+                break;
+            }
+        }
+        removeDead();
+    }
+
+    /**
+     * Pickup system: gives the player the keys it touches and the treasure boxes it opens.
+     * @param input The current input state, as treasure boxes open with the K key.
+     * @param player The player.
+     */
+    public void collect(GameInput input, Player player) {
+        // backwards, so the pickup moved into a collected one's slot has already been checked
+        for (int i = pickups.size() - 1; i >= 0; i--) {
+            int entity = pickups.entityAt(i);
+            if (!bodies.intersects(bodies.slotOf(entity), player.getBoundingBox())) {
+                continue;
+            }
+            if (pickups.locked[i]) {
+                if (!input.wasPressed(Keys.K) || player.getKeys() <= 0) {
+                    continue;
+                }
+                player.useKey();
+            }
+            player.addKey(pickups.keys[i]);
+            player.earnCoins(pickups.coins[i]);
+            destroy(entity);
+        }
+    }
+
+    /**
+     * Rendering system: draws every entity, interpolated between its last two ticks, with the enemies hidden
+     * until they wake and the treasure boxes above the terrain.
+     */
+    public void draw() {
+        for (int i = 0; i < bodies.size(); i++) {
+            int entity = bodies.entityAt(i);
+            if (!awake && healths.has(entity)) {
+                continue;
+            }
+            int pickup = pickups.slotOf(entity);
+            SpriteBatch.Layer layer = pickup != NONE && pickups.locked[pickup] ? SpriteBatch.Layer.TREASURE
+                    : SpriteBatch.Layer.ENTITIES;
+            bodies.sprite[i].draw(GameClock.lerp(bodies.lastX[i], bodies.x[i]),
+                    GameClock.lerp(bodies.lastY[i], bodies.y[i]), layer);
+        }
+    }
+
+    // destroys the enemies that died this tick, leaving their keys behind
+    private void removeDead() {
+        for (int i = healths.size() - 1; i >= 0; i--) {
+            if (!healths.isDead(i)) {
+                continue;
+            }
+            int entity = healths.entityAt(i);
+            int body = bodies.slotOf(entity);
+            GameEvents.enemyDied(bodies.sprite[body], bodies.x[body], bodies.y[body], healths.dropsKey[i],
+                    healths.size() - 1);
+            if (healths.dropsKey[i]) {
+                spawnKey(bodies.x[body], bodies.y[body]);
+            }
+            destroy(entity);
+        }
+    }
+}